@@ -0,0 +1,260 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+
+/**
+ * A search running in a Web Worker against a snapshot of an editor's
+ * document, so that slow expressions on huge documents do not block
+ * the page. Matches are passed to a {@link Listener} in chunks as they
+ * are found, and optionally added to an {@link AceMarkerGroup}.
+ *
+ * The ranges refer to the document as it was when the search started;
+ * cancel the search and start a new one when the document or the query
+ * changes. Cancelling stops the worker at once. Matches are searched line
+ * by line, so queries spanning several lines find nothing, and an invalid
+ * regular expression finds nothing either. Where Web Workers are
+ * not available the search runs on the page and delivers all matches
+ * in one chunk.
+ *
+ * Use {@link AceEditor#findInBackground(String, AceSearchOptions, Listener)}
+ * to start a search.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceBackgroundSearch {
+	// Posts [row, start column, end column] triples, every 3000 values or 50 ms.
+	private static final String WORKER_SOURCE =
+			"onmessage = function(e) {\n"
+			+ "  var d = e.data, re = new RegExp(d.source, d.flags), lines = d.lines;\n"
+			+ "  var hits = [], last = Date.now();\n"
+			+ "  for (var i = 0; i < lines.length; i++) {\n"
+			+ "    var line = lines[i], m;\n"
+			+ "    re.lastIndex = 0;\n"
+			+ "    while ((m = re.exec(line))) {\n"
+			+ "      if (!m[0].length) {\n"
+			+ "        if (re.lastIndex++ >= line.length) break;\n"
+			+ "        continue;\n"
+			+ "      }\n"
+			+ "      hits.push(i, m.index, m.index + m[0].length);\n"
+			+ "    }\n"
+			+ "    if (hits.length >= 3000 || (hits.length && Date.now() - last > 50)) {\n"
+			+ "      postMessage({hits: hits});\n"
+			+ "      hits = [];\n"
+			+ "      last = Date.now();\n"
+			+ "    }\n"
+			+ "  }\n"
+			+ "  postMessage({hits: hits, done: true});\n"
+			+ "};\n";
+
+	private final AceEditor editor;
+	private final Listener listener;
+	private AceMarkerGroup markerGroup = null;
+	private JavaScriptObject worker = null;
+	private boolean done = false;
+	private int found = 0;
+
+	AceBackgroundSearch(AceEditor editor, Listener listener) {
+		this.editor = editor;
+		this.listener = listener;
+	}
+
+	/**
+	 * Add the matches found from now on to a marker group.
+	 * @param markerGroup the {@link AceMarkerGroup}, or null
+	 * @return reference to this search
+	 */
+	public AceBackgroundSearch withMarkerGroup(AceMarkerGroup markerGroup) {
+		this.markerGroup = markerGroup;
+		return this;
+	}
+
+	/**
+	 * Stop the search. No more matches are delivered.
+	 */
+	public void cancel() {
+		if (done)
+			return;
+		done = true;
+		if (worker != null)
+			terminate(worker);
+		worker = null;
+	}
+
+	/**
+	 * Check whether the search completed or was cancelled.
+	 * @return true if no more matches will be delivered
+	 */
+	public boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * Start searching with compiled Ace search options.
+	 */
+	void start(JavaScriptObject options) {
+		final JavaScriptObject task = createTask(editor, options);
+		if (task != null && hasWorkers())
+			worker = startWorker(task, WORKER_SOURCE);
+		if (worker != null)
+			return;
+		// No workers: search on the page, still answering asynchronously.
+		Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+			@Override
+			public void execute() {
+				if (done)
+					return;
+				JsArray<AceRange> ranges = task != null ? searchInPlace(task)
+						: JavaScriptObject.createArray().<JsArray<AceRange>>cast();
+				done = true;
+				deliver(ranges);
+				listener.onComplete(found);
+			}
+		});
+	}
+
+	private void onMessage(JsArray<AceRange> ranges, boolean finished) {
+		if (done)
+			return;
+		if (finished) {
+			done = true;
+			terminate(worker);
+			worker = null;
+		}
+		if (ranges.length() > 0)
+			deliver(ranges);
+		if (finished)
+			listener.onComplete(found);
+	}
+
+	private void onWorkerError(String message) {
+		if (done)
+			return;
+		cancel();
+		listener.onError(message);
+	}
+
+	private void deliver(JsArray<AceRange> ranges) {
+		found += ranges.length();
+		if (markerGroup != null && ranges.length() > 0)
+			markerGroup.addAll(ranges);
+		listener.onMatches(ranges);
+	}
+
+	private static native boolean hasWorkers() /*-{
+		return !!($wnd.Worker && $wnd.Blob && $wnd.URL && $wnd.URL.createObjectURL);
+	}-*/;
+
+	/**
+	 * Snapshot the searched lines and turn the options into what the worker
+	 * needs, or give null if nothing can match.
+	 */
+	private static native JavaScriptObject createTask(AceEditor javaWrapper, JavaScriptObject options) /*-{
+		var editor = javaWrapper.@edu.ycp.cs.dh.acegwt.client.ace.AceEditor::editor;
+		var session = editor.getSession();
+		var Search = $wnd.ace.require("ace/search").Search;
+		var search = new Search().set(options);
+		var re = search.$assembleRegExp(search.$options, true);
+		if (!re || !options.needle)
+			return null;
+		var range = options.range;
+		var firstRow = range ? range.start.row : 0;
+		var lastRow = range ? range.end.row : session.getLength() - 1;
+		return {
+			source: re.source,
+			flags: "g" + (re.ignoreCase ? "i" : "") + (re.multiline ? "m" : ""),
+			lines: session.getLines(firstRow, lastRow),
+			firstRow: firstRow,
+			range: range
+		};
+	}-*/;
+
+	private native JavaScriptObject startWorker(JavaScriptObject task, String source) /*-{
+		var self = this;
+		var worker;
+		try {
+			var url = $wnd.URL.createObjectURL(new $wnd.Blob([source], {type: "application/javascript"}));
+			worker = new $wnd.Worker(url);
+			$wnd.URL.revokeObjectURL(url);
+		} catch (e) {
+			return null;
+		}
+		worker.onmessage = $entry(function(e) {
+			var ranges = @edu.ycp.cs.dh.acegwt.client.ace.AceBackgroundSearch::toRanges(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(task, e.data.hits);
+			self.@edu.ycp.cs.dh.acegwt.client.ace.AceBackgroundSearch::onMessage(Lcom/google/gwt/core/client/JsArray;Z)(ranges, !!e.data.done);
+		});
+		worker.onerror = $entry(function(e) {
+			self.@edu.ycp.cs.dh.acegwt.client.ace.AceBackgroundSearch::onWorkerError(Ljava/lang/String;)(e.message || "Search failed");
+		});
+		worker.postMessage({source: task.source, flags: task.flags, lines: task.lines});
+		return worker;
+	}-*/;
+
+	private static native void terminate(JavaScriptObject worker) /*-{
+		worker.terminate();
+	}-*/;
+
+	/**
+	 * Turn [row, start column, end column] triples into ranges, dropping
+	 * those outside the columns of the searched range.
+	 */
+	private static native JsArray<AceRange> toRanges(JavaScriptObject task, JavaScriptObject hits) /*-{
+		var Range = $wnd.ace.require("ace/range").Range;
+		var range = task.range;
+		var ranges = [];
+		for (var i = 0; i < hits.length; i += 3) {
+			var row = task.firstRow + hits[i];
+			if (range && ((row == range.start.row && hits[i + 1] < range.start.column)
+					|| (row == range.end.row && hits[i + 2] > range.end.column)))
+				continue;
+			ranges.push(new Range(row, hits[i + 1], row, hits[i + 2]));
+		}
+		return ranges;
+	}-*/;
+
+	private static native JsArray<AceRange> searchInPlace(JavaScriptObject task) /*-{
+		var re = new RegExp(task.source, task.flags);
+		var lines = task.lines;
+		var hits = [];
+		for (var i = 0; i < lines.length; i++) {
+			var line = lines[i], m;
+			re.lastIndex = 0;
+			while ((m = re.exec(line))) {
+				if (!m[0].length) {
+					if (re.lastIndex++ >= line.length)
+						break;
+					continue;
+				}
+				hits.push(i, m.index, m.index + m[0].length);
+			}
+		}
+		return @edu.ycp.cs.dh.acegwt.client.ace.AceBackgroundSearch::toRanges(Lcom/google/gwt/core/client/JavaScriptObject;Lcom/google/gwt/core/client/JavaScriptObject;)(task, hits);
+	}-*/;
+
+	/**
+	 * Receives the results of an {@link AceBackgroundSearch}.
+	 */
+	public static interface Listener {
+		/**
+		 * Called for each chunk of matches, in document order.
+		 * @param ranges the ranges of the matches
+		 */
+		public void onMatches(JsArray<AceRange> ranges);
+
+		/**
+		 * Called once the whole document was searched.
+		 * @param total the number of matches
+		 */
+		public void onComplete(int total);
+
+		/**
+		 * Called if the worker failed. No more matches are delivered.
+		 * @param message a description of the failure
+		 */
+		public void onError(String message);
+	}
+}
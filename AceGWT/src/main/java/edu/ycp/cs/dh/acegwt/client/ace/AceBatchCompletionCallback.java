@@ -0,0 +1,70 @@
+// Copyright (c) 2011-2014, David H. Hovemeyer <david.hovemeyer@gmail.com>
+// Copyright (c) 2014, Chris Ainsley <takapa@gmail.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * An {@link AceCompletionCallback} that also accepts proposals held in an
+ * {@link AceCompletionList}, and proposals streamed in batches. The
+ * callbacks handed to providers by {@link AceEditor} implement this
+ * interface; a provider answering with native lists should check for it
+ * and fall back to {@link AceCompletionList#submitTo(AceCompletionCallback)}
+ * otherwise.
+ * 
+ * A provider either answers once with one of the
+ * {@code invokeWithCompletions} methods, or streams its proposals in
+ * batches with {@code appendCompletions} and ends the answer with
+ * {@link #complete()}. The first batch of any provider is shown right
+ * away; later batches are merged into the open popup by score.
+ * 
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public interface AceBatchCompletionCallback extends AceCompletionCallback {
+	/**
+	 * Submit code completion proposals held in a native list and end the answer.
+	 * The list is handed to Ace without conversion, so it may be
+	 * built once and submitted again on later requests.
+	 * 
+	 * @param proposals the code completion proposals to submit
+	 */
+	public void invokeWithCompletions(AceCompletionList proposals);
+	
+	/**
+	 * Submit a batch of code completion proposals, more may follow.
+	 * 
+	 * @param proposals the code completion proposals to submit
+	 */
+	public void appendCompletions(AceCompletion[] proposals);
+	
+	/**
+	 * Submit a batch of code completion proposals held in a native list, more may follow.
+	 * 
+	 * @param proposals the code completion proposals to submit
+	 */
+	public void appendCompletions(AceCompletionList proposals);
+	
+	/**
+	 * End the answer after the last batch.
+	 */
+	public void complete();
+}
@@ -0,0 +1,184 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.HashMap;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * An {@link AceCompletionProvider} that remembers the last proposals
+ * another provider delivered for each editor. When the user keeps typing
+ * the same word (the row and the column where the prefix starts stay the
+ * same and the new prefix extends the old one) the remembered proposals
+ * are narrowed on the client instead of asking the wrapped provider again.
+ * Any document change outside the prefix being typed drops the
+ * remembered proposals. Everything kept for an editor is released when
+ * the editor is destroyed, or by {@link #release(AceEditor)}.
+ *
+ * The wrapped provider must not return proposals for a longer prefix that
+ * it would not have returned for a shorter one, which holds for any
+ * provider filtering by prefix or by Ace's own matching rules.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceCachingCompletionProvider implements AceCompletionProvider {
+	private final AceCompletionProvider delegate;
+	private final HashMap<AceEditor, CacheEntry> entries = new HashMap<AceEditor, CacheEntry>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate the provider whose proposals should be cached
+	 */
+	public AceCachingCompletionProvider(AceCompletionProvider delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void getProposals(final AceEditor editor, AceEditorCursorPosition pos, final String prefix,
+			final AceCompletionCallback callback, AceCompletionRequest request) {
+		final int start = pos.getColumn() - prefix.length();
+		CacheEntry entry = entries.get(editor);
+		if (entry == null) {
+			entry = new CacheEntry();
+			entries.put(editor, entry);
+			observe(editor, entry);
+		} else if (entry.proposals != null && entry.row == pos.getRow() && entry.start == start
+				&& prefix.startsWith(entry.prefix)) {
+			if (!prefix.equals(entry.prefix)) {
+				entry.proposals = entry.proposals.narrow(prefix);
+				entry.prefix = prefix;
+			}
+			entry.proposals.submitTo(callback);
+			return;
+		}
+
+		final CacheEntry pending = entry;
+		final int generation = ++pending.generation;
+		final AceCompletionList collected = AceCompletionList.create();
+		pending.proposals = null;
+		pending.row = pos.getRow();
+		pending.start = start;
+		pending.prefix = prefix;
+		delegate.getProposals(editor, pos, prefix, new AceBatchCompletionCallback() {
+			@Override
+			public void invokeWithCompletions(AceCompletion[] proposals) {
+				appendCompletions(proposals);
+				complete();
+			}
+
+			@Override
+			public void invokeWithCompletions(AceCompletionList proposals) {
+				appendCompletions(proposals);
+				complete();
+			}
+
+			@Override
+			public void appendCompletions(AceCompletion[] proposals) {
+				appendCompletions(AceCompletionList.of(proposals));
+			}
+
+			@Override
+			public void appendCompletions(AceCompletionList proposals) {
+				collected.addAll(proposals);
+				if (callback instanceof AceBatchCompletionCallback)
+					((AceBatchCompletionCallback) callback).appendCompletions(proposals);
+			}
+
+			@Override
+			public void complete() {
+				// Only complete answers may be narrowed later on.
+				if (pending.generation == generation)
+					pending.proposals = collected;
+				// A callback that cannot take batches gets the whole answer at once.
+				if (callback instanceof AceBatchCompletionCallback)
+					((AceBatchCompletionCallback) callback).complete();
+				else
+					collected.submitTo(callback);
+			}
+		}, request);
+	}
+
+	/**
+	 * Forget all cached proposals.
+	 */
+	public void invalidate() {
+		for (CacheEntry entry : entries.values())
+			entry.clear();
+	}
+
+	/**
+	 * Forget cached proposals of one editor.
+	 *
+	 * @param editor the {@link AceEditor}
+	 */
+	public void invalidate(AceEditor editor) {
+		CacheEntry entry = entries.get(editor);
+		if (entry != null)
+			entry.clear();
+	}
+
+	/**
+	 * Forget cached proposals of one editor and stop following its changes.
+	 * This happens by itself when the editor is destroyed.
+	 *
+	 * @param editor the {@link AceEditor}
+	 */
+	public void release(AceEditor editor) {
+		CacheEntry entry = entries.remove(editor);
+		if (entry != null) {
+			entry.clear();
+			AceEditor.unobserveChanges(entry.changeHandle);
+			editor.removeDestroyListener(entry.destroyListener);
+		}
+	}
+
+	private void observe(AceEditor editor, final CacheEntry entry) {
+		entry.changeHandle = editor.observeChanges(new AceEditorCallback() {
+			@Override
+			public void invokeAceCallback(JavaScriptObject obj) {
+				if (entry.prefix != null && !isInsidePrefix(obj, entry))
+					entry.clear();
+			}
+		});
+		entry.destroyListener = new AceEditor.DestroyListener() {
+			@Override
+			public void onDestroy(AceEditor destroyed) {
+				release(destroyed);
+			}
+		};
+		editor.addDestroyListener(entry.destroyListener);
+	}
+
+	// Typing goes on past the cached prefix before Ace asks again,
+	// so anything on the prefix row right of the prefix start counts.
+	private static boolean isInsidePrefix(JavaScriptObject changeEvent, CacheEntry entry) {
+		return isSingleRowChangeFrom(changeEvent, entry.row, entry.start);
+	}
+
+	private static native boolean isSingleRowChangeFrom(JavaScriptObject changeEvent,
+			int row, int fromColumn) /*-{
+		var delta = changeEvent.data;
+		if (!delta || (delta.action != "insertText" && delta.action != "removeText"))
+			return false;
+		var range = delta.range;
+		return range.start.row == row && range.end.row == row
+			&& range.start.column >= fromColumn;
+	}-*/;
+
+	private static class CacheEntry {
+		int generation;
+		int row;
+		int start;
+		String prefix;
+		AceCompletionList proposals;
+		JavaScriptObject changeHandle;
+		AceEditor.DestroyListener destroyListener;
+
+		void clear() {
+			generation++;
+			proposals = null;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link AceCompletionTooltipResolver} keeping the tooltips another
+ * resolver fetched in a bounded cache, dropping the least recently used
+ * ones first. Proposals without a tooltip are remembered too, and while
+ * a tooltip is being fetched further requests for it wait for the same
+ * answer instead of fetching it again.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceCachingTooltipResolver implements AceCompletionTooltipResolver {
+	private final AceCompletionTooltipResolver delegate;
+	private final LinkedHashMap<String, String> cache;
+	private final HashMap<String, List<Callback>> pending = new HashMap<String, List<Callback>>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate   the resolver whose tooltips should be cached
+	 * @param maxEntries the maximum number of tooltips kept
+	 */
+	public AceCachingTooltipResolver(AceCompletionTooltipResolver delegate, final int maxEntries) {
+		this.delegate = delegate;
+		this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	@Override
+	public void resolveTooltip(final String proposalId, Callback callback) {
+		if (cache.containsKey(proposalId)) {
+			callback.onTooltip(cache.get(proposalId));
+			return;
+		}
+		List<Callback> waiting = pending.get(proposalId);
+		if (waiting != null) {
+			waiting.add(callback);
+			return;
+		}
+		waiting = new ArrayList<Callback>();
+		waiting.add(callback);
+		pending.put(proposalId, waiting);
+		delegate.resolveTooltip(proposalId, new Callback() {
+			@Override
+			public void onTooltip(String htmlTooltip) {
+				List<Callback> callbacks = pending.remove(proposalId);
+				if (callbacks == null)
+					return;
+				cache.put(proposalId, htmlTooltip);
+				for (Callback callback : callbacks)
+					callback.onTooltip(htmlTooltip);
+			}
+		});
+	}
+
+	/**
+	 * Forget all cached tooltips.
+	 */
+	public void invalidate() {
+		cache.clear();
+	}
+
+	/**
+	 * Forget the cached tooltip of one proposal.
+	 *
+	 * @param proposalId the proposal id
+	 */
+	public void invalidate(String proposalId) {
+		cache.remove(proposalId);
+	}
+}
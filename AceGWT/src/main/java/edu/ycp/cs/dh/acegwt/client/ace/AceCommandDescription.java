@@ -246,15 +246,19 @@ public class AceCommandDescription {
 
 	/**
 	 * Create javascript object from Ace command description.
-	 * @param editor Ace editor java wrapper
+	 * @param editor Ace editor java wrapper, or null to run the command on
+	 * 		whichever editor executes it
 	 * @return Ace command javascript object
 	 */
 	public native JavaScriptObject toJavaScript(AceEditor editor) /*-{
 		var ret = {};
 		ret['name'] = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandDescription::name;
 		var javaExec = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandDescription::exec;
-		ret['exec'] = function() {
-			javaExec.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandDescription.ExecAction::exec(Ledu/ycp/cs/dh/acegwt/client/ace/AceEditor;)(editor);
+		ret['exec'] = function(aceEditor) {
+			var target = editor || (aceEditor && aceEditor._aceGWTAceEditor);
+			if (!target)
+				return false;
+			javaExec.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandDescription.ExecAction::exec(Ledu/ycp/cs/dh/acegwt/client/ace/AceEditor;)(target);
 		};
 		var bindKey = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandDescription::bindKey;
 		if (bindKey)
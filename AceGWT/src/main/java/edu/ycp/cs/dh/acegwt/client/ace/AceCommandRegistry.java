@@ -0,0 +1,136 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A cached view of the commands registered in an editor, meant for
+ * command palettes searching them on every keystroke.
+ *
+ * The names, a sorted index of them and the {@link AceCommandDescription}s
+ * are built once and kept until a command is added to or removed from the
+ * editor. Use {@link AceEditor#getCommandRegistry()} to get the registry
+ * of an editor.
+ */
+public class AceCommandRegistry {
+	private static final Comparator<String> CASE_INSENSITIVE = new Comparator<String>() {
+		@Override
+		public int compare(String a, String b) {
+			int cmp = a.toLowerCase().compareTo(b.toLowerCase());
+			return cmp != 0 ? cmp : a.compareTo(b);
+		}
+	};
+
+	private final AceEditor editor;
+	private int version = -1;
+	private List<String> names;
+	private List<String> sortedNames;
+	private List<String> sortedKeys;
+	private final HashMap<String, AceCommandDescription> descriptions = new HashMap<String, AceCommandDescription>();
+
+	AceCommandRegistry(AceEditor editor) {
+		this.editor = editor;
+	}
+
+	/**
+	 * Give the names of all commands, in the order Ace keeps them.
+	 * @return an unmodifiable list of command names
+	 */
+	public List<String> getNames() {
+		refresh();
+		return names;
+	}
+
+	/**
+	 * Give the description of a command. The same instance is returned
+	 * until the commands of the editor change, so it should not be modified.
+	 * @param name name of command
+	 * @return command description, or null if there is no such command
+	 */
+	public AceCommandDescription get(String name) {
+		refresh();
+		if (!descriptions.containsKey(name))
+			descriptions.put(name, editor.createCommandDescription(name));
+		return descriptions.get(name);
+	}
+
+	/**
+	 * Find the commands whose names start with a prefix, in either case.
+	 * @param prefix the prefix
+	 * @return matching command names, sorted
+	 */
+	public List<String> findByPrefix(String prefix) {
+		refresh();
+		String needle = prefix.toLowerCase();
+		List<String> result = new ArrayList<String>();
+		for (int i = lowerBound(sortedKeys, needle); i < sortedKeys.size(); i++) {
+			if (!sortedKeys.get(i).startsWith(needle))
+				break;
+			result.add(sortedNames.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Find the commands whose names contain the characters of a query in
+	 * order, in either case, ranked the way Ace ranks completion proposals:
+	 * names starting with the query first, then by the length of the gaps
+	 * between matched characters.
+	 * @param query the query
+	 * @param maxResults the maximum number of names to return
+	 * @return matching command names, best first
+	 */
+	public List<String> find(String query, int maxResults) {
+		refresh();
+		final HashMap<String, Integer> penalties = new HashMap<String, Integer>();
+		List<String> result = new ArrayList<String>();
+		for (String name : sortedNames) {
+			int penalty = AceCompletionMatcher.penalty(name, query);
+			if (penalty >= 0) {
+				penalties.put(name, penalty);
+				result.add(name);
+			}
+		}
+		// Stable, so equal penalties stay in name order.
+		Collections.sort(result, new Comparator<String>() {
+			@Override
+			public int compare(String a, String b) {
+				return penalties.get(a) - penalties.get(b);
+			}
+		});
+		return result.size() > maxResults ? new ArrayList<String>(result.subList(0, maxResults)) : result;
+	}
+
+	private void refresh() {
+		int current = editor.getCommandsVersion();
+		if (names != null && current == version)
+			return;
+		version = current;
+		descriptions.clear();
+		List<String> list = editor.readCommandNames();
+		names = Collections.unmodifiableList(list);
+		List<String> sorted = new ArrayList<String>(list);
+		Collections.sort(sorted, CASE_INSENSITIVE);
+		List<String> keys = new ArrayList<String>(sorted.size());
+		for (String name : sorted)
+			keys.add(name.toLowerCase());
+		sortedNames = sorted;
+		sortedKeys = keys;
+	}
+
+	private static int lowerBound(List<String> list, String text) {
+		int low = 0;
+		int high = list.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (list.get(mid).compareTo(text) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+}
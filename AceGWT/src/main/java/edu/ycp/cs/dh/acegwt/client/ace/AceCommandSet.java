@@ -0,0 +1,84 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A set of commands and key bindings shared by any number of editors.
+ *
+ * The commands are converted to Ace commands once and kept in a single
+ * Ace keyboard handler; attaching the set to an editor only adds that
+ * handler to the editor's key binding, and each command runs on the
+ * editor it is executed from. Commands added to or removed from the set
+ * apply at once to every editor it is attached to. The commands of the
+ * set take precedence over the editor's own key bindings, but they are
+ * not registered as editor commands, so {@link AceEditor#execCommand(String)}
+ * does not find them; use {@link #exec(AceEditor, String)} instead.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceCommandSet {
+	private JavaScriptObject handler = null;
+
+	/**
+	 * Add a command, or replace the command with the same name.
+	 * @param description command description
+	 */
+	public native void add(AceCommandDescription description) /*-{
+		var handler = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandSet::getHandler()();
+		handler.addCommand(description.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandDescription::toJavaScript(Ledu/ycp/cs/dh/acegwt/client/ace/AceEditor;)(null));
+	}-*/;
+
+	/**
+	 * Remove a command.
+	 * @param name name of command
+	 */
+	public native void remove(String name) /*-{
+		var handler = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandSet::getHandler()();
+		handler.removeCommand(name);
+	}-*/;
+
+	/**
+	 * List names of the commands in this set.
+	 * @return command names
+	 */
+	public native List<String> listCommands() /*-{
+		var handler = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandSet::getHandler()();
+		var ret = @java.util.ArrayList::new()();
+		for (var command in handler.commands)
+			ret.@java.util.ArrayList::add(Ljava/lang/Object;)(command);
+		return ret;
+	}-*/;
+
+	/**
+	 * Execute a command of this set on an editor.
+	 * @param editor the {@link AceEditor}
+	 * @param name name of command
+	 * @return false if there is no such command or it could not run
+	 */
+	public native boolean exec(AceEditor editor, String name) /*-{
+		var handler = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCommandSet::getHandler()();
+		var command = handler.commands[name];
+		if (!command)
+			return false;
+		var aceEditor = editor.@edu.ycp.cs.dh.acegwt.client.ace.AceEditor::editor;
+		return aceEditor.commands.exec(command, aceEditor);
+	}-*/;
+
+	/**
+	 * Give the Ace keyboard handler holding the commands, created on first use.
+	 */
+	JavaScriptObject getHandler() {
+		if (handler == null)
+			handler = createHandler();
+		return handler;
+	}
+
+	private static native JavaScriptObject createHandler() /*-{
+		var HashHandler = $wnd.ace.require("ace/keyboard/hash_handler").HashHandler;
+		return new HashHandler();
+	}-*/;
+}
@@ -23,6 +23,10 @@ package edu.ycp.cs.dh.acegwt.client.ace;
 
 /**
  * Callback interface for submitting code completion proposals.
+ * 
+ * The callbacks handed to providers by {@link AceEditor} also implement
+ * {@link AceBatchCompletionCallback}, which accepts native proposal lists
+ * and proposals streamed in batches.
  */
 public interface AceCompletionCallback {
 	/**
@@ -21,32 +21,121 @@
 
 package edu.ycp.cs.dh.acegwt.client.ace;
 
-import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.user.client.Timer;
 
 /**
- * Implementation of {@link AceCompletionCallback}
- * that delegates to a native JavaScript Ace code completion
- * callback.
+ * Implementation of {@link AceBatchCompletionCallback} handed to one
+ * provider for one {@link AceCompletionRequest}. Proposals delivered
+ * after the request was cancelled, after its time budget ran out, or
+ * after it was already completed, are dropped. Measurements go to the
+ * {@link AceCompletionMetricsSink} installed when the request started.
  */
-class AceCompletionCallbackImpl implements AceCompletionCallback {
-	private JavaScriptObject jsCallback;
+class AceCompletionCallbackImpl implements AceBatchCompletionCallback {
+	private final AceEditor editor;
 	
-	public AceCompletionCallbackImpl(JavaScriptObject jsCallback) {
-		this.jsCallback = jsCallback;
+	private final AceCompletionRequestImpl request;
+	
+	private final AceCompletionSession session;
+	
+	private final AceCompletionMetricsSink metrics;
+	
+	private final double startTime = Duration.currentTimeMillis();
+	
+	private Timer budgetTimer;
+	
+	private int proposalCount = 0;
+	
+	public AceCompletionCallbackImpl(AceEditor editor, AceCompletionRequestImpl request, AceCompletionSession session) {
+		this.editor = editor;
+		this.request = request;
+		this.session = session;
+		this.metrics = AceEditor.getCompletionMetricsSink();
+		if (metrics != null) {
+			metrics.onRequest(request.getProvider());
+			request.addCancelListener(new AceCompletionRequest.CancelListener() {
+				@Override
+				public void onCancel(AceCompletionRequest cancelled) {
+					metrics.onCancel(AceCompletionCallbackImpl.this.request.getProvider(), elapsed());
+				}
+			});
+		}
 	}
 	
 	@Override
 	public void invokeWithCompletions(AceCompletion[] proposals) {
-		JsArray<JavaScriptObject> jsProposals = JavaScriptObject.createArray().cast();
-		for (AceCompletion proposal : proposals) {
-			jsProposals.push(proposal.toJsObject());
+		appendCompletions(proposals);
+		complete();
+	}
+	
+	@Override
+	public void invokeWithCompletions(AceCompletionList proposals) {
+		appendCompletions(proposals);
+		complete();
+	}
+	
+	@Override
+	public void appendCompletions(AceCompletion[] proposals) {
+		if (isClosed()) {
+			lateDrop();
+			return;
+		}
+		appendCompletions(AceCompletionList.of(proposals));
+	}
+	
+	@Override
+	public void appendCompletions(AceCompletionList proposals) {
+		if (isClosed()) {
+			lateDrop();
+			return;
+		}
+		if (metrics != null) {
+			proposalCount += proposals.size();
+			metrics.onBatch(request.getProvider(), proposals.size(), elapsed());
 		}
-		doInvokeWithCompletions(jsProposals);
+		session.append(request.getProvider(), proposals);
+	}
+	
+	@Override
+	public void complete() {
+		if (isClosed())
+			return;
+		if (budgetTimer != null)
+			budgetTimer.cancel();
+		editor.finishCompletionRequest(request);
+		if (metrics != null)
+			metrics.onComplete(request.getProvider(), proposalCount, elapsed());
+		session.complete();
 	}
 	
-	private native void doInvokeWithCompletions(JsArray<JavaScriptObject> jsProposals) /*-{
-		var callback = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCompletionCallbackImpl::jsCallback;
-		callback(null, jsProposals);
-	}-*/;
-}
\ No newline at end of file
+	/**
+	 * Give the provider a time budget, after which the request is
+	 * cancelled and the provider counts as done.
+	 * @param millis the time budget in milliseconds
+	 */
+	public void setTimeBudget(int millis) {
+		budgetTimer = new Timer() {
+			@Override
+			public void run() {
+				if (isClosed())
+					return;
+				editor.dropCompletionRequest(request);
+				session.complete();
+			}
+		};
+		budgetTimer.schedule(millis);
+	}
+	
+	private void lateDrop() {
+		if (metrics != null)
+			metrics.onLateDrop(request.getProvider());
+	}
+	
+	private double elapsed() {
+		return Duration.currentTimeMillis() - startTime;
+	}
+	
+	private boolean isClosed() {
+		return request.isCancelled() || request.isFinished();
+	}
+}
@@ -0,0 +1,222 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A list of completion proposals kept as a native JavaScript array of
+ * Ace completion objects. Unlike {@link AceCompletion} arrays, a list is
+ * handed to Ace without any conversion, so a provider with a large, mostly
+ * static dictionary can build it once, keep it and pass it to
+ * {@link AceBatchCompletionCallback#invokeWithCompletions(AceCompletionList)}
+ * on every request.
+ * 
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public final class AceCompletionList extends JavaScriptObject {
+	
+	protected AceCompletionList() {
+	}
+	
+	/**
+	 * Create an empty list.
+	 * @return a new {@link AceCompletionList}
+	 */
+	public static AceCompletionList create() {
+		return JavaScriptObject.createArray().cast();
+	}
+	
+	/**
+	 * Create a list holding the given proposals. Each proposal is converted once, here.
+	 * @param proposals the proposals
+	 * @return a new {@link AceCompletionList}
+	 */
+	public static AceCompletionList of(AceCompletion[] proposals) {
+		AceCompletionList list = create();
+		for (AceCompletion proposal : proposals)
+			list.add(proposal);
+		return list;
+	}
+	
+	/**
+	 * Add a value proposal, see {@link AceCompletionValue} for the meaning of the arguments.
+	 * 
+	 * @param caption     the caption shown in the dropdown box
+	 * @param value       the text value of the completion
+	 * @param meta        the category shown right aligned in the dropdown box
+	 * @param htmlTooltip the HTML tooltip, may be null
+	 * @param score       the score, higher values appear closer to the top
+	 * @return this list
+	 */
+	public native AceCompletionList addValue(String caption, String value, String meta, String htmlTooltip, int score) /*-{
+		this.push({
+			caption: caption,
+			value: value,
+			score: score,
+			meta: meta,
+			aceGwtHtmlTooltip: htmlTooltip,
+			aceGwtScore: score
+		});
+		return this;
+	}-*/;
+	
+	/**
+	 * Add a snippet proposal, see {@link AceCompletionSnippet} for the meaning of the arguments.
+	 * 
+	 * @param caption     the caption shown in the dropdown box
+	 * @param snippet     the escaped snippet text
+	 * @param meta        the category shown right aligned in the dropdown box
+	 * @param htmlTooltip the HTML tooltip, may be null
+	 * @param score       the score, higher values appear closer to the top
+	 * @return this list
+	 */
+	public native AceCompletionList addSnippet(String caption, String snippet, String meta, String htmlTooltip, int score) /*-{
+		this.push({
+			caption: caption,
+			snippet: snippet,
+			score: score,
+			meta: meta,
+			aceGwtHtmlTooltip: htmlTooltip,
+			aceGwtScore: score
+		});
+		return this;
+	}-*/;
+	
+	/**
+	 * Add a proposal. The proposal is converted once, here.
+	 * 
+	 * @param completion the {@link AceCompletion}
+	 * @return this list
+	 */
+	public AceCompletionList add(AceCompletion completion) {
+		push(completion.toJsObject());
+		return this;
+	}
+	
+	/**
+	 * Add the proposal of a snippet registered with {@link AceSnippetRegistry}.
+	 * The proposal was built at registration and is shared, not copied.
+	 * 
+	 * @param id the snippet id
+	 * @return this list
+	 * @throws IllegalArgumentException if no snippet is registered with this id
+	 */
+	public AceCompletionList addRegisteredSnippet(String id) {
+		AceRegisteredSnippet snippet = AceSnippetRegistry.get(id);
+		if (snippet == null)
+			throw new IllegalArgumentException("No snippet registered with id " + id);
+		return add(snippet);
+	}
+	
+	/**
+	 * Add all proposals of another list.
+	 * 
+	 * @param other the other {@link AceCompletionList}
+	 * @return this list
+	 */
+	public native AceCompletionList addAll(AceCompletionList other) /*-{
+		for (var i = 0; i < other.length; i++)
+			this.push(other[i]);
+		return this;
+	}-*/;
+	
+	/**
+	 * Set the id identifying a proposal to an {@link AceCompletionTooltipResolver}.
+	 * Without an id, the caption is used.
+	 * 
+	 * @param index      the index of the proposal in this list
+	 * @param proposalId the proposal id
+	 * @return this list
+	 */
+	public native AceCompletionList setProposalId(int index, String proposalId) /*-{
+		this[index].aceGwtId = proposalId;
+		return this;
+	}-*/;
+	
+	/**
+	 * Submit this list as the whole answer to a callback. A callback
+	 * accepting native lists gets the list itself; any other callback gets
+	 * an {@link AceCompletion} array wrapping the proposals of this list.
+	 * 
+	 * @param callback the {@link AceCompletionCallback}
+	 */
+	public void submitTo(AceCompletionCallback callback) {
+		if (callback instanceof AceBatchCompletionCallback)
+			((AceBatchCompletionCallback) callback).invokeWithCompletions(this);
+		else
+			callback.invokeWithCompletions(toArray());
+	}
+	
+	/**
+	 * Wrap the proposals of this list, without converting them.
+	 * @return an array holding one {@link AceCompletion} per proposal
+	 */
+	AceCompletion[] toArray() {
+		AceCompletion[] proposals = new AceCompletion[size()];
+		for (int i = 0; i < proposals.length; i++)
+			proposals[i] = new Item(get(i));
+		return proposals;
+	}
+	
+	/**
+	 * Give the number of proposals.
+	 * @return number of proposals in this list
+	 */
+	public native int size() /*-{
+		return this.length;
+	}-*/;
+	
+	/**
+	 * Keep the proposals matching a prefix the way Ace's popup does.
+	 * The proposals themselves are shared, not copied.
+	 * 
+	 * @param prefix the typed prefix
+	 * @return a new list holding the matching proposals
+	 */
+	public AceCompletionList narrow(String prefix) {
+		AceCompletionList narrowed = create();
+		for (int i = 0; i < size(); i++) {
+			String text = getFilterText(i);
+			if (text != null && AceCompletionMatcher.matches(text, prefix))
+				narrowed.pushFrom(this, i);
+		}
+		return narrowed;
+	}
+	
+	native String getFilterText(int index) /*-{
+		var item = this[index];
+		return item.value || item.caption || item.snippet || null;
+	}-*/;
+	
+	native boolean contains(JavaScriptObject item) /*-{
+		return this.indexOf(item) >= 0;
+	}-*/;
+	
+	private native JavaScriptObject get(int index) /*-{
+		return this[index];
+	}-*/;
+	
+	private native void pushFrom(AceCompletionList other, int index) /*-{
+		this.push(other[index]);
+	}-*/;
+	
+	native void push(JavaScriptObject item) /*-{
+		if (item.aceGwtScore === undefined)
+			item.aceGwtScore = item.score;
+		this.push(item);
+	}-*/;
+	
+	private static class Item extends AceCompletion {
+		private final JavaScriptObject jsObject;
+		
+		Item(JavaScriptObject jsObject) {
+			this.jsObject = jsObject;
+		}
+		
+		@Override
+		JavaScriptObject toJsObject() {
+			return jsObject;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * Java port of the matching rules Ace's completion popup uses to
+ * filter proposals against the typed prefix: every character of the
+ * prefix must occur in the candidate, in order, in either case.
+ * Each gap between matched characters costs its length, and not
+ * matching at the start of the candidate costs another 10.
+ */
+final class AceCompletionMatcher {
+	private AceCompletionMatcher() {
+	}
+
+	/**
+	 * Check whether Ace would keep a candidate for the given prefix.
+	 * @param text the candidate text
+	 * @param needle the typed prefix
+	 * @return true if the candidate matches
+	 */
+	static boolean matches(String text, String needle) {
+		return penalty(text, needle) >= 0;
+	}
+
+	/**
+	 * Compute the amount Ace subtracts from the score of a candidate
+	 * for the given prefix. A penalty of 0 is what Ace calls an exact match.
+	 * @param text the candidate text
+	 * @param needle the typed prefix
+	 * @return the penalty, or -1 if the candidate does not match
+	 */
+	static int penalty(String text, String needle) {
+		int lastIndex = -1;
+		int penalty = 0;
+		for (int j = 0; j < needle.length(); j++) {
+			int index = indexOfEitherCase(text, needle.charAt(j), lastIndex + 1);
+			if (index < 0)
+				return -1;
+			int distance = index - lastIndex - 1;
+			if (distance > 0) {
+				if (lastIndex == -1)
+					penalty += 10;
+				penalty += distance;
+			}
+			lastIndex = index;
+		}
+		return penalty;
+	}
+
+	private static int indexOfEitherCase(String text, char c, int from) {
+		int i1 = text.indexOf(Character.toLowerCase(c), from);
+		int i2 = text.indexOf(Character.toUpperCase(c), from);
+		return (i1 >= 0) ? ((i2 < 0 || i1 < i2) ? i1 : i2) : i2;
+	}
+}
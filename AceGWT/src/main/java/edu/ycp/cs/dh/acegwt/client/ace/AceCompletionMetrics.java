@@ -0,0 +1,195 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * An {@link AceCompletionMetricsSink} aggregating the measurements of
+ * each provider: request, completion, cancellation and late drop counts,
+ * result sizes, accepted proposals and a histogram of the time from
+ * request to completed answer.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceCompletionMetrics implements AceCompletionMetricsSink {
+	/**
+	 * Upper bounds, in milliseconds, of the latency histogram buckets.
+	 * A last bucket counts answers slower than the last bound.
+	 */
+	public static final double[] LATENCY_BUCKETS = { 10, 25, 50, 100, 250, 500, 1000, 2500 };
+
+	private final LinkedHashMap<AceCompletionProvider, ProviderMetrics> metrics = new LinkedHashMap<AceCompletionProvider, ProviderMetrics>();
+
+	/**
+	 * Give the metrics of one provider.
+	 * @param provider the {@link AceCompletionProvider}
+	 * @return the {@link ProviderMetrics}, or null if the provider was never asked
+	 */
+	public ProviderMetrics get(AceCompletionProvider provider) {
+		return metrics.get(provider);
+	}
+
+	/**
+	 * Give the metrics of all providers, in the order they were first asked.
+	 * @return list of {@link ProviderMetrics}
+	 */
+	public List<ProviderMetrics> getAll() {
+		return new ArrayList<ProviderMetrics>(metrics.values());
+	}
+
+	/**
+	 * Forget all measurements.
+	 */
+	public void reset() {
+		metrics.clear();
+	}
+
+	@Override
+	public void onRequest(AceCompletionProvider provider) {
+		of(provider).requests++;
+	}
+
+	@Override
+	public void onBatch(AceCompletionProvider provider, int proposals, double elapsedMillis) {
+		// Counted in onComplete, so batches of cancelled requests are left out.
+	}
+
+	@Override
+	public void onComplete(AceCompletionProvider provider, int proposals, double elapsedMillis) {
+		ProviderMetrics m = of(provider);
+		m.completed++;
+		m.proposals += proposals;
+		int bucket = 0;
+		while (bucket < LATENCY_BUCKETS.length && elapsedMillis > LATENCY_BUCKETS[bucket])
+			bucket++;
+		m.latencyHistogram[bucket]++;
+	}
+
+	@Override
+	public void onCancel(AceCompletionProvider provider, double elapsedMillis) {
+		of(provider).cancelled++;
+	}
+
+	@Override
+	public void onLateDrop(AceCompletionProvider provider) {
+		of(provider).lateDrops++;
+	}
+
+	@Override
+	public void onAccept(AceCompletionProvider provider) {
+		of(provider).accepted++;
+	}
+
+	private ProviderMetrics of(AceCompletionProvider provider) {
+		ProviderMetrics m = metrics.get(provider);
+		if (m == null) {
+			m = new ProviderMetrics(provider);
+			metrics.put(provider, m);
+		}
+		return m;
+	}
+
+	/**
+	 * Measurements of one provider.
+	 */
+	public static class ProviderMetrics {
+		private final AceCompletionProvider provider;
+		private final int[] latencyHistogram = new int[LATENCY_BUCKETS.length + 1];
+		private int requests;
+		private int completed;
+		private int cancelled;
+		private int lateDrops;
+		private int accepted;
+		private long proposals;
+
+		ProviderMetrics(AceCompletionProvider provider) {
+			this.provider = provider;
+		}
+
+		/**
+		 * Give the measured provider.
+		 * @return the {@link AceCompletionProvider}
+		 */
+		public AceCompletionProvider getProvider() {
+			return provider;
+		}
+
+		/**
+		 * Give the number of requests.
+		 * @return number of requests
+		 */
+		public int getRequests() {
+			return requests;
+		}
+
+		/**
+		 * Give the number of answers completed in time.
+		 * @return number of completed answers
+		 */
+		public int getCompleted() {
+			return completed;
+		}
+
+		/**
+		 * Give the number of requests cancelled before the answer was complete.
+		 * @return number of cancelled requests
+		 */
+		public int getCancelled() {
+			return cancelled;
+		}
+
+		/**
+		 * Give the number of batches dropped because they came too late.
+		 * @return number of dropped batches
+		 */
+		public int getLateDrops() {
+			return lateDrops;
+		}
+
+		/**
+		 * Give the number of accepted proposals.
+		 * @return number of accepted proposals
+		 */
+		public int getAccepted() {
+			return accepted;
+		}
+
+		/**
+		 * Give the total number of proposals of the completed answers.
+		 * @return number of proposals
+		 */
+		public long getProposals() {
+			return proposals;
+		}
+
+		/**
+		 * Give the average number of proposals of a completed answer.
+		 * @return average result size, 0 if no answer was completed
+		 */
+		public double getAverageResultSize() {
+			return completed == 0 ? 0 : (double) proposals / completed;
+		}
+
+		/**
+		 * Give the share of requests which led to an accepted proposal.
+		 * @return accepted proposals divided by requests, 0 if there were no requests
+		 */
+		public double getAcceptanceRate() {
+			return requests == 0 ? 0 : (double) accepted / requests;
+		}
+
+		/**
+		 * Give the number of completed answers per latency bucket,
+		 * see {@link AceCompletionMetrics#LATENCY_BUCKETS}.
+		 * @return a copy of the histogram
+		 */
+		public int[] getLatencyHistogram() {
+			int[] copy = new int[latencyHistogram.length];
+			System.arraycopy(latencyHistogram, 0, copy, 0, copy.length);
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * Receives measurements of completion requests, per provider.
+ * Install a sink with {@link AceEditor#setCompletionMetricsSink(AceCompletionMetricsSink)}
+ * to forward them to a monitoring system, or use {@link AceCompletionMetrics}
+ * to aggregate them in the page. Times are in milliseconds since the
+ * provider was asked for proposals.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public interface AceCompletionMetricsSink {
+	/**
+	 * A provider was asked for proposals.
+	 * @param provider the {@link AceCompletionProvider}
+	 */
+	public void onRequest(AceCompletionProvider provider);
+
+	/**
+	 * A provider delivered a batch of proposals in time.
+	 * @param provider      the {@link AceCompletionProvider}
+	 * @param proposals     the number of proposals in the batch
+	 * @param elapsedMillis the time since the request
+	 */
+	public void onBatch(AceCompletionProvider provider, int proposals, double elapsedMillis);
+
+	/**
+	 * A provider completed its answer.
+	 * @param provider      the {@link AceCompletionProvider}
+	 * @param proposals     the number of proposals in all batches of the answer
+	 * @param elapsedMillis the time since the request
+	 */
+	public void onComplete(AceCompletionProvider provider, int proposals, double elapsedMillis);
+
+	/**
+	 * A request was cancelled before the provider completed it: the popup
+	 * closed, a newer request superseded it or its time budget ran out.
+	 * @param provider      the {@link AceCompletionProvider}
+	 * @param elapsedMillis the time since the request
+	 */
+	public void onCancel(AceCompletionProvider provider, double elapsedMillis);
+
+	/**
+	 * A provider delivered proposals for a request which was cancelled or
+	 * completed already; they were dropped.
+	 * @param provider the {@link AceCompletionProvider}
+	 */
+	public void onLateDrop(AceCompletionProvider provider);
+
+	/**
+	 * The user accepted a proposal of a provider.
+	 * @param provider the {@link AceCompletionProvider}
+	 */
+	public void onAccept(AceCompletionProvider provider);
+}
@@ -33,13 +33,17 @@ public interface AceCompletionProvider {
 	 * Call to get code completion proposals, which are delivered
 	 * to a callback. Note that it is fine for this method to
 	 * invoke the callback at a later time (for example, on completion
-	 * of RPC.) 
+	 * of RPC.) Proposals delivered after the request has been
+	 * cancelled are dropped, so asynchronous providers should
+	 * abort their work when the request is cancelled.
 	 * 
 	 * @param editor   the {@link AceEditor}
 	 * @param pos      the cursor position
 	 * @param prefix   the word prefix
 	 * @param callback the {@link AceCompletionCallback} to which the
 	 *                 proposals should be delivered
+	 * @param request  the {@link AceCompletionRequest} identifying this call
 	 */
-	public void getProposals(AceEditor editor, AceEditorCursorPosition pos, String prefix, AceCompletionCallback callback);
+	public void getProposals(AceEditor editor, AceEditorCursorPosition pos, String prefix, AceCompletionCallback callback,
+			AceCompletionRequest request);
 }
@@ -0,0 +1,39 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * Identity of one call to {@link AceCompletionProvider#getProposals}.
+ * A request is cancelled when the completion popup closes, or when the
+ * same editor asks the same provider again before this request was
+ * answered. Proposals delivered for a cancelled request are dropped, so
+ * providers answering asynchronously can check {@link #isCancelled()} or
+ * register a {@link CancelListener} to abort their work early.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public interface AceCompletionRequest {
+	/**
+	 * Check whether this request was cancelled.
+	 * @return true if proposals for this request are no longer wanted
+	 */
+	public boolean isCancelled();
+
+	/**
+	 * Register a listener called once when this request is cancelled.
+	 * If the request is already cancelled the listener is called at once.
+	 * @param listener the {@link CancelListener}
+	 */
+	public void addCancelListener(CancelListener listener);
+
+	/**
+	 * Listener for request cancellation.
+	 */
+	public static interface CancelListener {
+		/**
+		 * Emitted when the request is cancelled.
+		 * @param request the cancelled {@link AceCompletionRequest}
+		 */
+		public void onCancel(AceCompletionRequest request);
+	}
+}
@@ -0,0 +1,68 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of {@link AceCompletionRequest} tracked by the
+ * {@link AceEditor} which issued it.
+ */
+class AceCompletionRequestImpl implements AceCompletionRequest {
+	private final AceCompletionProvider provider;
+	private final List<CancelListener> listeners = new ArrayList<CancelListener>();
+	private boolean cancelled = false;
+	private boolean finished = false;
+
+	public AceCompletionRequestImpl(AceCompletionProvider provider) {
+		this.provider = provider;
+	}
+
+	/**
+	 * Give the provider this request was issued to.
+	 * @return the {@link AceCompletionProvider}
+	 */
+	public AceCompletionProvider getProvider() {
+		return provider;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public void addCancelListener(CancelListener listener) {
+		if (cancelled)
+			listener.onCancel(this);
+		else
+			listeners.add(listener);
+	}
+
+	/**
+	 * Check whether this request has been answered.
+	 * @return true if proposals were delivered for this request
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	/**
+	 * Cancel this request and notify its listeners.
+	 */
+	public void cancel() {
+		if (cancelled || finished)
+			return;
+		cancelled = true;
+		for (CancelListener listener : listeners)
+			listener.onCancel(this);
+		listeners.clear();
+	}
+
+	/**
+	 * Forget listeners once the request has been answered.
+	 */
+	public void finish() {
+		finished = true;
+		listeners.clear();
+	}
+}
@@ -0,0 +1,149 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Collects the answers of all providers asked for one Ace completion
+ * request. The first non-empty batch of any provider is passed to the
+ * native Ace callback, so fast providers are not held back by slow ones.
+ * Ace expects a single answer from each completer, so later batches are
+ * merged straight into the list shown by the popup, which is filtered
+ * and sorted by score again while the selected proposal stays selected.
+ * An empty answer is only reported once every provider is done and
+ * nothing was passed on before, because Ace closes the popup when it
+ * sees an empty final answer.
+ *
+ * A single answer is handed to Ace as it is: the proposals delivered so
+ * far are only collected once a second batch needs merging. Ace's popup
+ * lowers the score of a proposal each time it filters it; the original
+ * scores are restored when batches are merged and when the popup closes.
+ * Which provider delivered an accepted proposal is only looked up when
+ * it is accepted, so proposals are not tagged on every request.
+ */
+class AceCompletionSession {
+	private final JavaScriptObject editor;
+	
+	private final JavaScriptObject jsCallback;
+	
+	private final int gatherId;
+	
+	private final List<AceCompletionProvider> providers = new ArrayList<AceCompletionProvider>();
+	
+	private final List<AceCompletionList> batches = new ArrayList<AceCompletionList>();
+	
+	private AceCompletionList first;
+	
+	// All proposals passed on, built once a second batch comes in.
+	private AceCompletionList delivered;
+	
+	private int outstanding;
+	
+	private boolean answered = false;
+	
+	public AceCompletionSession(JavaScriptObject editor, JavaScriptObject jsCallback, int providerCount) {
+		this.editor = editor;
+		this.jsCallback = jsCallback;
+		this.gatherId = getGatherId(editor);
+		this.outstanding = providerCount;
+		if (providerCount == 0)
+			answer(AceCompletionList.create());
+	}
+	
+	/**
+	 * Pass on a batch of proposals of one provider.
+	 * @param provider  the provider
+	 * @param proposals the proposals of the provider
+	 */
+	public void append(AceCompletionProvider provider, AceCompletionList proposals) {
+		if (proposals.size() == 0)
+			return;
+		providers.add(provider);
+		batches.add(proposals);
+		if (!answered) {
+			first = proposals;
+			answer(proposals);
+			return;
+		}
+		if (delivered == null) {
+			delivered = AceCompletionList.create();
+			if (first != null)
+				delivered.addAll(first);
+		}
+		delivered.addAll(proposals);
+		merge(editor, gatherId, proposals, delivered);
+	}
+	
+	/**
+	 * Give the provider which delivered a proposal.
+	 * @param item the proposal, as passed to Ace
+	 * @return the provider, or null if the proposal is not one of this session
+	 */
+	public AceCompletionProvider getProvider(JavaScriptObject item) {
+		for (int i = 0; i < batches.size(); i++) {
+			if (batches.get(i).contains(item))
+				return providers.get(i);
+		}
+		return null;
+	}
+	
+	/**
+	 * Note that one provider is done.
+	 */
+	public void complete() {
+		outstanding--;
+		if (outstanding == 0 && !answered)
+			answer(AceCompletionList.create());
+	}
+	
+	private void answer(AceCompletionList proposals) {
+		answered = true;
+		invoke(proposals);
+	}
+	
+	private native void invoke(AceCompletionList jsProposals) /*-{
+		var callback = this.@edu.ycp.cs.dh.acegwt.client.ace.AceCompletionSession::jsCallback;
+		callback(null, jsProposals);
+	}-*/;
+	
+	private static native int getGatherId(JavaScriptObject editor) /*-{
+		return editor.completer ? editor.completer.gatherCompletionsId : 0;
+	}-*/;
+	
+	private static native void merge(JavaScriptObject editor, int gatherId,
+			AceCompletionList batch, AceCompletionList delivered) /*-{
+		var completer = editor.completer;
+		if (!completer || !completer.activated || completer.editor !== editor
+				|| completer.gatherCompletionsId != gatherId || !completer.base)
+			return;
+		var FilteredList = $wnd.ace.require("ace/autocomplete").FilteredList;
+		var prefix = editor.session.getTextRange({start: completer.base, end: editor.getCursorPosition()});
+		var popup = completer.popup;
+		var open = !!(completer.completions && popup && popup.isOpen);
+		var all = open ? completer.completions.all.concat(batch) : delivered;
+		for (var i = 0; i < all.length; i++) {
+			if (all[i].aceGwtScore !== undefined)
+				all[i].score = all[i].aceGwtScore;
+		}
+		var completions = new FilteredList(all);
+		completions.exactMatch = !!completer.exactMatch;
+		completions.setFilter(prefix);
+		if (!completions.filtered.length)
+			return;
+		if (!open) {
+			completer.completions = completions;
+			completer.openPopup(editor, prefix, false);
+			return;
+		}
+		var selected = popup.data[popup.getRow()];
+		completer.completions = completions;
+		popup.setData(completions.filtered);
+		var row = selected ? completions.filtered.indexOf(selected) : -1;
+		if (row >= 0)
+			popup.setRow(row);
+		else if (!completer.autoSelect)
+			popup.setRow(-1);
+	}-*/;
+}
@@ -83,7 +83,16 @@ public class AceCompletionSnippet extends AceCompletion {
 		this.score = score;
 		this.meta = meta;
 		this.tooltip = htmlTooltip;
-		
+		this.snippet = compile(snippetSegments);
+	}
+	
+	/**
+	 * Build the escaped snippet text from its segments, numbering the tabstops.
+	 * 
+	 * @param snippetSegments the segments that make up the snippet
+	 * @return the snippet text in Ace's format
+	 */
+	static String compile(AceCompletionSnippetSegment[] snippetSegments) {
 		StringBuilder sb = new StringBuilder();
 		
 		int tabStopNumber = 1;
@@ -95,7 +104,7 @@ public class AceCompletionSnippet extends AceCompletion {
 			}
 		}
 		
-		this.snippet = sb.toString();
+		return sb.toString();
 	}
 	
 	/**
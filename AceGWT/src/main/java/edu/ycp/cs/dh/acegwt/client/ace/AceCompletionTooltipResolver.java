@@ -0,0 +1,36 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * Supplies documentation tooltips of completion proposals on demand.
+ * The resolver is only asked for the proposal highlighted in the
+ * completion popup, and only if the proposal was not given a tooltip
+ * up front; it may answer synchronously or later. Wrap it in an
+ * {@link AceCachingTooltipResolver} to keep fetched tooltips.
+ *
+ * Proposals are identified by the id set with
+ * {@link AceCompletionList#setProposalId(int, String)}, or by their
+ * caption (the value or snippet text if there is no caption).
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public interface AceCompletionTooltipResolver {
+	/**
+	 * Fetch the tooltip of a proposal.
+	 * @param proposalId the proposal id
+	 * @param callback   the {@link Callback} to pass the tooltip to
+	 */
+	public void resolveTooltip(String proposalId, Callback callback);
+
+	/**
+	 * Callback receiving a resolved tooltip.
+	 */
+	public static interface Callback {
+		/**
+		 * Pass on the tooltip of a proposal.
+		 * @param htmlTooltip the HTML tooltip, or null if the proposal has none
+		 */
+		public void onTooltip(String htmlTooltip);
+	}
+}
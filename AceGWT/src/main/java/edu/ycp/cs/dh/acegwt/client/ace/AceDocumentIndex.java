@@ -0,0 +1,133 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+
+import edu.ycp.cs.dh.acegwt.shared.TextMatch;
+import edu.ycp.cs.dh.acegwt.shared.TrigramIndex;
+
+/**
+ * A {@link TrigramIndex} over the documents of many editors, kept up to
+ * date from their change events, for "find in open files" without
+ * reading and scanning the text of every editor.
+ *
+ * Register each editor under an id; queries answer with the ranges of
+ * the matches per id. Each edit re-indexes only the lines it touched.
+ * A document is unregistered when its editor is destroyed.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceDocumentIndex {
+	private final TrigramIndex index = new TrigramIndex();
+	private final HashMap<String, Registration> registrations = new HashMap<String, Registration>();
+
+	/**
+	 * Index the document of an editor and follow its changes, replacing
+	 * any editor registered under the same id.
+	 *
+	 * @param id     the document id
+	 * @param editor the {@link AceEditor}, which must be started
+	 */
+	public void register(final String id, final AceEditor editor) {
+		unregister(id);
+		final Registration registration = new Registration(editor);
+		registrations.put(id, registration);
+		index.setDocument(id, readLines(editor, 0, editor.getLineCount()));
+		registration.changeHandle = editor.observeChanges(new AceEditorCallback() {
+			@Override
+			public void invokeAceCallback(JavaScriptObject obj) {
+				update(id, editor, obj);
+			}
+		});
+		registration.destroyListener = new AceEditor.DestroyListener() {
+			@Override
+			public void onDestroy(AceEditor destroyed) {
+				unregister(id);
+			}
+		};
+		editor.addDestroyListener(registration.destroyListener);
+	}
+
+	/**
+	 * Stop indexing a document.
+	 *
+	 * @param id the document id
+	 */
+	public void unregister(String id) {
+		Registration registration = registrations.remove(id);
+		if (registration != null) {
+			AceEditor.unobserveChanges(registration.changeHandle);
+			registration.editor.removeDestroyListener(registration.destroyListener);
+		}
+		index.removeDocument(id);
+	}
+
+	/**
+	 * Find the occurrences of a text in all registered documents.
+	 *
+	 * @param text          the text, which must not contain line breaks
+	 * @param caseSensitive true for case sensitive matching
+	 * @return the ranges of the matches per document id, for documents with matches
+	 */
+	public Map<String, JsArray<AceRange>> find(String text, boolean caseSensitive) {
+		return toRanges(index.find(text, caseSensitive));
+	}
+
+	/**
+	 * Find the matches of a regular expression in all registered documents,
+	 * see {@link TrigramIndex#findRegExp(String, boolean, String)}.
+	 *
+	 * @param pattern       the JavaScript regular expression
+	 * @param caseSensitive true for case sensitive matching
+	 * @param requiredText  a text every match contains, or null to scan all documents
+	 * @return the ranges of the matches per document id, for documents with matches
+	 */
+	public Map<String, JsArray<AceRange>> findRegExp(String pattern, boolean caseSensitive, String requiredText) {
+		return toRanges(index.findRegExp(pattern, caseSensitive, requiredText));
+	}
+
+	private void update(String id, AceEditor editor, JavaScriptObject changeEvent) {
+		int[] rows = AceEditor.getChangedRows(changeEvent);
+		if (rows == null || rows[0] + rows[1] > index.getLineCount(id)) {
+			index.setDocument(id, readLines(editor, 0, editor.getLineCount()));
+			return;
+		}
+		index.replaceLines(id, rows[0], rows[1], readLines(editor, rows[0], rows[2]));
+	}
+
+	private static List<String> readLines(AceEditor editor, int start, int count) {
+		List<String> lines = new ArrayList<String>(count);
+		for (int row = start; row < start + count; row++)
+			lines.add(editor.getLine(row));
+		return lines;
+	}
+
+	private static Map<String, JsArray<AceRange>> toRanges(Map<String, List<TextMatch>> matches) {
+		Map<String, JsArray<AceRange>> result = new LinkedHashMap<String, JsArray<AceRange>>();
+		for (Map.Entry<String, List<TextMatch>> entry : matches.entrySet()) {
+			JsArray<AceRange> ranges = JavaScriptObject.createArray().cast();
+			for (TextMatch match : entry.getValue())
+				ranges.push(AceRange.create(match.getRow(), match.getStartColumn(), match.getRow(), match.getEndColumn()));
+			result.put(entry.getKey(), ranges);
+		}
+		return result;
+	}
+
+	private static class Registration {
+		final AceEditor editor;
+		JavaScriptObject changeHandle;
+		AceEditor.DestroyListener destroyListener;
+
+		Registration(AceEditor editor) {
+			this.editor = editor;
+		}
+	}
+}
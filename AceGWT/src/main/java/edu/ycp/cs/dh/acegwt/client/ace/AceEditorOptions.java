@@ -0,0 +1,263 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Editor options applied together with
+ * {@link AceEditor#setOptions(AceEditorOptions)}, in a single call to
+ * Ace's <code>setOptions</code>. Only the options that were set are
+ * applied; the others keep the editor's current values.
+ */
+public class AceEditorOptions {
+	private String themeName = null;
+	private String modeName = null;
+	private String fontSize = null;
+	private Integer tabSize = null;
+	private Boolean useSoftTabs = null;
+	private Boolean useWorker = null;
+	private Boolean useWrapMode = null;
+	private Boolean readOnly = null;
+	private Boolean showGutter = null;
+	private Boolean showPrintMargin = null;
+	private Boolean hScrollBarAlwaysVisible = null;
+	private Boolean highlightSelectedWord = null;
+	private Boolean autocompleteEnabled = null;
+
+	/**
+	 * Chainable setter method for theme property.
+	 * @param theme the theme (one of the values in the {@link AceEditorTheme} enumeration)
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withTheme(AceEditorTheme theme) {
+		return withThemeByName(theme.getName());
+	}
+
+	/**
+	 * Chainable setter method for theme property.
+	 * @param themeName the theme name (e.g., "twilight")
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withThemeByName(String themeName) {
+		this.themeName = themeName;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for mode property.
+	 * @param mode the mode (one of the values in the {@link AceEditorMode} enumeration)
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withMode(AceEditorMode mode) {
+		return withModeByName(mode.getName());
+	}
+
+	/**
+	 * Chainable setter method for mode property.
+	 * @param modeName the short mode name (e.g., "java")
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withModeByName(String modeName) {
+		this.modeName = modeName;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for fontSize property.
+	 * @param fontSize the font size in pixels, e.g., 16
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withFontSize(int fontSize) {
+		return withFontSize(fontSize + "px");
+	}
+
+	/**
+	 * Chainable setter method for fontSize property.
+	 * @param fontSize the font size, e.g., "16px"
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withFontSize(String fontSize) {
+		this.fontSize = fontSize;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for tabSize property.
+	 * @param tabSize the tab size
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withTabSize(int tabSize) {
+		this.tabSize = tabSize;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for useSoftTabs property.
+	 * @param useSoftTabs true if soft tabs should be used
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withUseSoftTabs(boolean useSoftTabs) {
+		this.useSoftTabs = useSoftTabs;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for useWorker property.
+	 * @param useWorker true to validate the syntax in a web worker
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withUseWorker(boolean useWorker) {
+		this.useWorker = useWorker;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for useWrapMode property.
+	 * @param useWrapMode true if word wrap should be used
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withUseWrapMode(boolean useWrapMode) {
+		this.useWrapMode = useWrapMode;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for readOnly property.
+	 * @param readOnly true if the editor should be read-only
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withReadOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for showGutter property.
+	 * @param showGutter true if the gutter should be shown
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withShowGutter(boolean showGutter) {
+		this.showGutter = showGutter;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for showPrintMargin property.
+	 * @param showPrintMargin true if the print margin should be shown
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withShowPrintMargin(boolean showPrintMargin) {
+		this.showPrintMargin = showPrintMargin;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for hScrollBarAlwaysVisible property.
+	 * @param hScrollBarAlwaysVisible true if the horizontal scrollbar is always visible
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withHScrollBarAlwaysVisible(boolean hScrollBarAlwaysVisible) {
+		this.hScrollBarAlwaysVisible = hScrollBarAlwaysVisible;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for highlightSelectedWord property.
+	 * @param highlightSelectedWord true to highlight the other occurrences of the selected word
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withHighlightSelectedWord(boolean highlightSelectedWord) {
+		this.highlightSelectedWord = highlightSelectedWord;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for autocompleteEnabled property.
+	 * @param autocompleteEnabled true if autocomplete should be enabled
+	 * @return reference to these options
+	 */
+	public AceEditorOptions withAutocompleteEnabled(boolean autocompleteEnabled) {
+		this.autocompleteEnabled = autocompleteEnabled;
+		return this;
+	}
+
+	/**
+	 * Set the options that were set in other options.
+	 * @param other the other options
+	 */
+	void putAll(AceEditorOptions other) {
+		if (other.themeName != null)
+			themeName = other.themeName;
+		if (other.modeName != null)
+			modeName = other.modeName;
+		if (other.fontSize != null)
+			fontSize = other.fontSize;
+		if (other.tabSize != null)
+			tabSize = other.tabSize;
+		if (other.useSoftTabs != null)
+			useSoftTabs = other.useSoftTabs;
+		if (other.useWorker != null)
+			useWorker = other.useWorker;
+		if (other.useWrapMode != null)
+			useWrapMode = other.useWrapMode;
+		if (other.readOnly != null)
+			readOnly = other.readOnly;
+		if (other.showGutter != null)
+			showGutter = other.showGutter;
+		if (other.showPrintMargin != null)
+			showPrintMargin = other.showPrintMargin;
+		if (other.hScrollBarAlwaysVisible != null)
+			hScrollBarAlwaysVisible = other.hScrollBarAlwaysVisible;
+		if (other.highlightSelectedWord != null)
+			highlightSelectedWord = other.highlightSelectedWord;
+		if (other.autocompleteEnabled != null)
+			autocompleteEnabled = other.autocompleteEnabled;
+	}
+
+	/**
+	 * Create the options object of Ace's <code>setOptions</code>,
+	 * with the options that were set.
+	 * @return Ace editor options javascript object
+	 */
+	JavaScriptObject toJavaScript() {
+		JavaScriptObject options = JavaScriptObject.createObject();
+		if (themeName != null)
+			putString(options, "theme", "ace/theme/" + themeName);
+		if (modeName != null)
+			putString(options, "mode", "ace/mode/" + modeName);
+		if (fontSize != null)
+			putString(options, "fontSize", fontSize);
+		if (tabSize != null)
+			putInt(options, "tabSize", tabSize);
+		if (useSoftTabs != null)
+			putBoolean(options, "useSoftTabs", useSoftTabs);
+		if (useWorker != null)
+			putBoolean(options, "useWorker", useWorker);
+		if (useWrapMode != null)
+			putBoolean(options, "wrap", useWrapMode);
+		if (readOnly != null)
+			putBoolean(options, "readOnly", readOnly);
+		if (showGutter != null)
+			putBoolean(options, "showGutter", showGutter);
+		if (showPrintMargin != null)
+			putBoolean(options, "showPrintMargin", showPrintMargin);
+		if (hScrollBarAlwaysVisible != null)
+			putBoolean(options, "hScrollBarAlwaysVisible", hScrollBarAlwaysVisible);
+		if (highlightSelectedWord != null)
+			putBoolean(options, "highlightSelectedWord", highlightSelectedWord);
+		if (autocompleteEnabled != null)
+			putBoolean(options, "enableBasicAutocompletion", autocompleteEnabled);
+		return options;
+	}
+
+	private static native void putString(JavaScriptObject options, String name, String value) /*-{
+		options[name] = value;
+	}-*/;
+
+	private static native void putInt(JavaScriptObject options, String name, int value) /*-{
+		options[name] = value;
+	}-*/;
+
+	private static native void putBoolean(JavaScriptObject options, String name, boolean value) /*-{
+		options[name] = value;
+	}-*/;
+}
@@ -0,0 +1,27 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * When an {@link AceEditorWidget} starts its editor after being attached.
+ * Until the editor starts, the widget keeps the text and options set on
+ * it and applies them when it does.
+ */
+public enum AceEditorStartPolicy {
+
+	/**
+	 * Start the editor as soon as the widget is attached.
+	 */
+	EAGER,
+
+	/**
+	 * Start the editor when the widget first becomes visible in the
+	 * viewport, e.g. when the hidden tab or collapsed panel holding it is
+	 * shown. Browsers without IntersectionObserver start it at once.
+	 */
+	ON_VISIBLE,
+
+	/**
+	 * Start the editor when the user first presses a mouse button on,
+	 * touches or focuses the widget. The widget shows nothing until then.
+	 */
+	ON_FIRST_INTERACTION
+}
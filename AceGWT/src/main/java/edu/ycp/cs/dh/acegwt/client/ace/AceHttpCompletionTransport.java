@@ -0,0 +1,89 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsonUtils;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+
+/**
+ * An {@link AceRemoteCompletionTransport} posting each batch of queries
+ * to a URL in one HTTP request.
+ *
+ * The request body has one line per query, the mode name and the prefix
+ * separated by a tab. The response must be a JSON array holding, for each
+ * query in order, an array of proposals in Ace's format, for example
+ * <code>[[{"caption": "getValue", "value": "getValue", "meta": "method", "score": 10}]]</code>.
+ * The parsed proposals are handed to Ace as they are. Cancelling a fetch
+ * aborts its HTTP request.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceHttpCompletionTransport implements AceRemoteCompletionTransport {
+	private final String url;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param url the URL to post queries to
+	 */
+	public AceHttpCompletionTransport(String url) {
+		this.url = url;
+	}
+
+	@Override
+	public Fetch fetch(List<AceRemoteCompletionQuery> queries, final Callback callback) {
+		StringBuilder body = new StringBuilder();
+		for (AceRemoteCompletionQuery query : queries) {
+			body.append(query.getMode() != null ? query.getMode() : "");
+			body.append('\t');
+			body.append(query.getPrefix());
+			body.append('\n');
+		}
+		RequestBuilder builder = new RequestBuilder(RequestBuilder.POST, url);
+		builder.setHeader("Content-Type", "text/plain; charset=utf-8");
+		try {
+			final Request request = builder.sendRequest(body.toString(), new RequestCallback() {
+				@Override
+				public void onResponseReceived(Request request, Response response) {
+					if (response.getStatusCode() != Response.SC_OK) {
+						callback.onFailure(new RequestException("Completion request failed with status " + response.getStatusCode()));
+						return;
+					}
+					JsArray<AceCompletionList> lists;
+					try {
+						lists = JsonUtils.safeEval(response.getText());
+					} catch (IllegalArgumentException e) {
+						callback.onFailure(e);
+						return;
+					}
+					List<AceCompletionList> results = new ArrayList<AceCompletionList>(lists.length());
+					for (int i = 0; i < lists.length(); i++)
+						results.add(lists.get(i));
+					callback.onSuccess(results);
+				}
+
+				@Override
+				public void onError(Request request, Throwable exception) {
+					callback.onFailure(exception);
+				}
+			});
+			return new Fetch() {
+				@Override
+				public void cancel() {
+					request.cancel();
+				}
+			};
+		} catch (RequestException e) {
+			callback.onFailure(e);
+			return null;
+		}
+	}
+}
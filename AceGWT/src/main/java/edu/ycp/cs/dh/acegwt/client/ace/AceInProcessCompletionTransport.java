@@ -0,0 +1,95 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+
+/**
+ * An {@link AceRemoteCompletionTransport} answering queries in the page,
+ * as a stand-in for a server in tests and demos. Batches are answered
+ * asynchronously, like a real transport would, and counted so that
+ * debouncing, coalescing and cancelling can be checked.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceInProcessCompletionTransport implements AceRemoteCompletionTransport {
+	private final Handler handler;
+	private int batchCount;
+	private int queryCount;
+	private int cancelCount;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param handler the {@link Handler} answering queries
+	 */
+	public AceInProcessCompletionTransport(Handler handler) {
+		this.handler = handler;
+	}
+
+	@Override
+	public Fetch fetch(final List<AceRemoteCompletionQuery> queries, final Callback callback) {
+		batchCount++;
+		queryCount += queries.size();
+		final boolean[] cancelled = { false };
+		Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+			@Override
+			public void execute() {
+				if (cancelled[0]) {
+					cancelCount++;
+					return;
+				}
+				List<AceCompletionList> results = new ArrayList<AceCompletionList>(queries.size());
+				for (AceRemoteCompletionQuery query : queries)
+					results.add(AceCompletionList.of(handler.complete(query)));
+				callback.onSuccess(results);
+			}
+		});
+		return new Fetch() {
+			@Override
+			public void cancel() {
+				cancelled[0] = true;
+			}
+		};
+	}
+
+	/**
+	 * Give the number of batches fetched.
+	 * @return number of batches
+	 */
+	public int getBatchCount() {
+		return batchCount;
+	}
+
+	/**
+	 * Give the number of queries fetched, over all batches.
+	 * @return number of queries
+	 */
+	public int getQueryCount() {
+		return queryCount;
+	}
+
+	/**
+	 * Give the number of batches cancelled before they were answered.
+	 * @return number of batches
+	 */
+	public int getCancelCount() {
+		return cancelCount;
+	}
+
+	/**
+	 * Answers queries in the page.
+	 */
+	public static interface Handler {
+		/**
+		 * Answer a query.
+		 * @param query the {@link AceRemoteCompletionQuery}
+		 * @return the proposals
+		 */
+		public AceCompletion[] complete(AceRemoteCompletionQuery query);
+	}
+}
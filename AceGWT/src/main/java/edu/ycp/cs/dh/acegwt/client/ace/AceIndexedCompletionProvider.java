@@ -0,0 +1,338 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * An {@link AceCompletionProvider} answering from an index of symbols,
+ * meant for dictionaries too large to filter linearly on every keystroke.
+ *
+ * Symbols are kept in sorted arrays of lower-cased keys: one of names,
+ * and one of camel-hump initials ("gVA" finds "getValueAt", "xhr" finds
+ * "XML_HTTP_REQUEST") and of the rest of each name from each later word
+ * on ("value" finds "getValueAt"). A request is a binary search plus a
+ * walk over the keys starting with the prefix; the second array is only
+ * walked when names starting with the prefix do not fill the result.
+ * Candidates are ranked with the rules Ace's popup uses (prefix matches
+ * first, then by score minus Ace's gap penalty) and only the best
+ * {@link #setMaxResults(int) maxResults} are returned. Other subsequence matches Ace would accept are only found
+ * with {@link #setFullScanFallback(boolean)}. Each symbol is converted to
+ * Ace's completion object once, the first time it is proposed, and the
+ * same object is handed to Ace on later requests.
+ *
+ * Symbols can be added and removed at any time; a symbol added with the
+ * name of an existing symbol replaces it.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceIndexedCompletionProvider implements AceCompletionProvider {
+	private static final Comparator<Key> BY_TEXT = new Comparator<Key>() {
+		@Override
+		public int compare(Key a, Key b) {
+			int cmp = a.text.compareTo(b.text);
+			if (cmp == 0)
+				cmp = a.symbol.name.compareTo(b.symbol.name);
+			return cmp != 0 ? cmp : a.ordinal - b.ordinal;
+		}
+	};
+
+	// Worst candidate first, so a bounded queue drops it.
+	private static final Comparator<Candidate> WORST_FIRST = new Comparator<Candidate>() {
+		@Override
+		public int compare(Candidate a, Candidate b) {
+			if (a.exact != b.exact)
+				return a.exact ? 1 : -1;
+			if (a.rank != b.rank)
+				return a.rank < b.rank ? -1 : 1;
+			return b.symbol.name.compareTo(a.symbol.name);
+		}
+	};
+
+	private final HashMap<String, Symbol> symbols = new HashMap<String, Symbol>();
+	private final ArrayList<Key> nameKeys = new ArrayList<Key>();
+	private final ArrayList<Key> keys = new ArrayList<Key>();
+	private int maxResults = 100;
+	private boolean fullScanFallback = false;
+	private int queryStamp;
+
+	/**
+	 * Add a symbol, or replace the symbol with the same name.
+	 *
+	 * @param name  the symbol name, used as caption and value
+	 * @param meta  the category shown right aligned in the dropdown box
+	 * @param score the score, higher values appear closer to the top
+	 */
+	public void addSymbol(String name, String meta, int score) {
+		addSymbol(name, meta, null, score);
+	}
+
+	/**
+	 * Add a symbol, or replace the symbol with the same name.
+	 *
+	 * @param name        the symbol name, used as caption and value
+	 * @param meta        the category shown right aligned in the dropdown box
+	 * @param htmlTooltip the HTML tooltip, may be null
+	 * @param score       the score, higher values appear closer to the top
+	 */
+	public void addSymbol(String name, String meta, String htmlTooltip, int score) {
+		removeSymbol(name);
+		Symbol symbol = new Symbol(name, meta, htmlTooltip, score);
+		symbols.put(name, symbol);
+		for (Key key : symbol.keys) {
+			List<Key> list = listOf(key);
+			list.add(-Collections.binarySearch(list, key, BY_TEXT) - 1, key);
+		}
+	}
+
+	/**
+	 * Add many symbols sharing a category and score. The index is
+	 * sorted once for the whole collection.
+	 *
+	 * @param names the symbol names
+	 * @param meta  the category shown right aligned in the dropdown box
+	 * @param score the score, higher values appear closer to the top
+	 */
+	public void addSymbols(Collection<String> names, String meta, int score) {
+		for (String name : names)
+			symbols.put(name, new Symbol(name, meta, null, score));
+		nameKeys.clear();
+		keys.clear();
+		for (Symbol symbol : symbols.values()) {
+			for (Key key : symbol.keys)
+				listOf(key).add(key);
+		}
+		Collections.sort(nameKeys, BY_TEXT);
+		Collections.sort(keys, BY_TEXT);
+	}
+
+	/**
+	 * Remove a symbol.
+	 *
+	 * @param name the symbol name
+	 * @return true if the symbol was in the index
+	 */
+	public boolean removeSymbol(String name) {
+		Symbol symbol = symbols.remove(name);
+		if (symbol == null)
+			return false;
+		for (Key key : symbol.keys) {
+			List<Key> list = listOf(key);
+			list.remove(Collections.binarySearch(list, key, BY_TEXT));
+		}
+		return true;
+	}
+
+	/**
+	 * Remove all symbols.
+	 */
+	public void clear() {
+		symbols.clear();
+		nameKeys.clear();
+		keys.clear();
+	}
+
+	/**
+	 * Give the number of symbols in the index.
+	 * @return number of symbols
+	 */
+	public int size() {
+		return symbols.size();
+	}
+
+	/**
+	 * Set the maximum number of proposals returned for one request (100 by default).
+	 * @param maxResults the maximum number of proposals
+	 */
+	public void setMaxResults(int maxResults) {
+		this.maxResults = maxResults;
+	}
+
+	/**
+	 * Set whether all symbols are scanned for subsequence matches when
+	 * the key lookup gives fewer than {@link #setMaxResults(int) maxResults}
+	 * results (off by default). This finds every proposal Ace would accept,
+	 * but makes such requests linear in the size of the index.
+	 * @param fullScanFallback true to scan all symbols when needed
+	 */
+	public void setFullScanFallback(boolean fullScanFallback) {
+		this.fullScanFallback = fullScanFallback;
+	}
+
+	@Override
+	public void getProposals(AceEditor editor, AceEditorCursorPosition pos, String prefix,
+			AceCompletionCallback callback, AceCompletionRequest request) {
+		AceCompletionList proposals = AceCompletionList.create();
+		for (Symbol symbol : best(prefix))
+			proposals.push(symbol.getJsObject());
+		proposals.submitTo(callback);
+	}
+
+	/**
+	 * Find the best proposals for a prefix, best first.
+	 *
+	 * @param prefix the typed prefix
+	 * @return at most {@link #setMaxResults(int) maxResults} proposals
+	 */
+	public List<AceCompletionValue> query(String prefix) {
+		Symbol[] best = best(prefix);
+		List<AceCompletionValue> proposals = new ArrayList<AceCompletionValue>(best.length);
+		for (Symbol symbol : best)
+			proposals.add(symbol.completion);
+		return proposals;
+	}
+
+	private Symbol[] best(String prefix) {
+		int stamp = ++queryStamp;
+		PriorityQueue<Candidate> best = new PriorityQueue<Candidate>(maxResults + 1, WORST_FIRST);
+		String needle = prefix.toLowerCase();
+
+		for (int i = lowerBound(nameKeys, needle); i < nameKeys.size(); i++) {
+			Key key = nameKeys.get(i);
+			if (!key.text.startsWith(needle))
+				break;
+			offer(best, key.symbol, 0, stamp);
+		}
+
+		// Other keys never give exact matches, which would all rank higher.
+		if (best.size() < maxResults) {
+			for (int i = lowerBound(keys, needle); i < keys.size(); i++) {
+				Key key = keys.get(i);
+				if (!key.text.startsWith(needle))
+					break;
+				Symbol symbol = key.symbol;
+				if (symbol.stamp != stamp)
+					offer(best, symbol, AceCompletionMatcher.penalty(symbol.name, prefix), stamp);
+			}
+		}
+
+		if (fullScanFallback && best.size() < maxResults) {
+			for (Symbol symbol : symbols.values()) {
+				if (symbol.stamp == stamp)
+					continue;
+				int penalty = AceCompletionMatcher.penalty(symbol.name, prefix);
+				if (penalty >= 0)
+					offer(best, symbol, penalty, stamp);
+			}
+		}
+
+		Symbol[] result = new Symbol[best.size()];
+		for (int i = result.length - 1; i >= 0; i--)
+			result[i] = best.poll().symbol;
+		return result;
+	}
+
+	private void offer(PriorityQueue<Candidate> best, Symbol symbol, int penalty, int stamp) {
+		symbol.stamp = stamp;
+		if (penalty < 0 || maxResults <= 0)
+			return;
+		Candidate candidate = new Candidate(symbol, penalty);
+		if (best.size() < maxResults) {
+			best.add(candidate);
+		} else if (WORST_FIRST.compare(candidate, best.peek()) > 0) {
+			best.poll();
+			best.add(candidate);
+		}
+	}
+
+	private List<Key> listOf(Key key) {
+		return key.ordinal == 0 ? nameKeys : keys;
+	}
+
+	private static int lowerBound(List<Key> list, String text) {
+		int low = 0;
+		int high = list.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (list.get(mid).text.compareTo(text) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Lower-cased keys a symbol is found by: the name, the initials of
+	 * its camelCase, snake_case or dotted words, and the rest of the
+	 * name from each later word on.
+	 */
+	private static List<String> keysOf(String name) {
+		List<String> keys = new ArrayList<String>();
+		String lower = name.toLowerCase();
+		keys.add(lower);
+		StringBuilder humps = new StringBuilder();
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (!Character.isLetterOrDigit(c))
+				continue;
+			char prev = i > 0 ? name.charAt(i - 1) : ' ';
+			if (!Character.isLetterOrDigit(prev)
+					|| (Character.isUpperCase(c) && !Character.isUpperCase(prev))) {
+				humps.append(Character.toLowerCase(c));
+				if (humps.length() > 1)
+					keys.add(lower.substring(i));
+			}
+		}
+		if (humps.length() > 1)
+			keys.add(humps.toString());
+		return keys;
+	}
+
+	private static class Symbol {
+		final String name;
+		final int score;
+		final AceCompletionValue completion;
+		final Key[] keys;
+		int stamp;
+		JavaScriptObject jsObject;
+
+		Symbol(String name, String meta, String htmlTooltip, int score) {
+			this.name = name;
+			this.score = score;
+			this.completion = new AceCompletionValue(name, name, meta, htmlTooltip, score);
+			List<String> texts = keysOf(name);
+			this.keys = new Key[texts.size()];
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = new Key(texts.get(i), this, i);
+		}
+
+		JavaScriptObject getJsObject() {
+			if (jsObject == null)
+				jsObject = completion.toJsObject();
+			return jsObject;
+		}
+	}
+
+	private static class Key {
+		final String text;
+		final Symbol symbol;
+		final int ordinal;
+
+		Key(String text, Symbol symbol, int ordinal) {
+			this.text = text;
+			this.symbol = symbol;
+			this.ordinal = ordinal;
+		}
+	}
+
+	private static class Candidate {
+		final Symbol symbol;
+		final boolean exact;
+		final int rank;
+
+		Candidate(Symbol symbol, int penalty) {
+			this.symbol = symbol;
+			this.exact = penalty == 0;
+			this.rank = symbol.score - penalty;
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Thresholds above which an {@link AceEditor} turns off features that get
+ * expensive on large documents. The document is checked whenever its text
+ * is set; features turned off for a large document are turned back on,
+ * as they were, when a smaller one is set.
+ *
+ * Use {@link AceEditor#setLargeFilePolicy(AceLargeFilePolicy)} to apply a policy.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceLargeFilePolicy {
+	private int maxLength = 1000000;
+	private int maxLines = 50000;
+	private int maxLineLength = 5000;
+	private Set<Feature> features = EnumSet.allOf(Feature.class);
+
+	/**
+	 * Give the largest number of characters of a document not considered large.
+	 * @return number of characters
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * Give the largest number of lines of a document not considered large.
+	 * @return number of lines
+	 */
+	public int getMaxLines() {
+		return maxLines;
+	}
+
+	/**
+	 * Give the length of the longest line of a document not considered large.
+	 * @return number of characters
+	 */
+	public int getMaxLineLength() {
+		return maxLineLength;
+	}
+
+	/**
+	 * Give the features turned off for large documents.
+	 * @return the features
+	 */
+	public Set<Feature> getFeatures() {
+		return Collections.unmodifiableSet(features);
+	}
+
+	/**
+	 * Chainable setter method for maxLength property (1000000 by default).
+	 * @param maxLength largest number of characters of a document not considered large
+	 * @return reference to this policy
+	 */
+	public AceLargeFilePolicy withMaxLength(int maxLength) {
+		this.maxLength = maxLength;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for maxLines property (50000 by default).
+	 * @param maxLines largest number of lines of a document not considered large
+	 * @return reference to this policy
+	 */
+	public AceLargeFilePolicy withMaxLines(int maxLines) {
+		this.maxLines = maxLines;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for maxLineLength property (5000 by default).
+	 * @param maxLineLength length of the longest line of a document not considered large
+	 * @return reference to this policy
+	 */
+	public AceLargeFilePolicy withMaxLineLength(int maxLineLength) {
+		this.maxLineLength = maxLineLength;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for the features turned off for large
+	 * documents (all of them by default).
+	 * @param features the features
+	 * @return reference to this policy
+	 */
+	public AceLargeFilePolicy withFeatures(Feature... features) {
+		this.features = EnumSet.noneOf(Feature.class);
+		Collections.addAll(this.features, features);
+		return this;
+	}
+
+	/**
+	 * Check whether a document is large.
+	 * @param length number of characters
+	 * @param lines number of lines
+	 * @param longestLine length of the longest line
+	 * @return true if any threshold is exceeded
+	 */
+	boolean isLarge(int length, int lines, int longestLine) {
+		return length > maxLength || lines > maxLines || longestLine > maxLineLength;
+	}
+
+	/**
+	 * Editor features a {@link AceLargeFilePolicy} can turn off.
+	 */
+	public static enum Feature {
+		/**
+		 * Soft wrapping of long lines
+		 */
+		WRAP("wrap"),
+		/**
+		 * Syntax validation in a web worker
+		 */
+		WORKER("worker"),
+		/**
+		 * Highlighting of the other occurrences of the selected word
+		 */
+		HIGHLIGHT_SELECTED_WORD("highlightSelectedWord"),
+		/**
+		 * Fold widgets in the gutter
+		 */
+		FOLD_WIDGETS("foldWidgets"),
+		/**
+		 * Ace's completer of the words of the document
+		 */
+		LOCAL_COMPLETION("localCompletion");
+
+		private final String name;
+
+		private Feature(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @return the feature name (e.g., "wrap")
+		 */
+		public String getName() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * Limits on the work an {@link AceEditor} does for very long lines,
+ * such as the single line of a minified script.
+ *
+ * Only the first {@link #withMaxTokenizedLength(int) maxTokenizedLength}
+ * characters of a line are tokenized; the rest of the line is shown as
+ * plain text, and the next line is tokenized from the start state, as Ace
+ * does when its own token limit is hit. Lines longer than
+ * {@link #withSliceThreshold(int) sliceThreshold} characters are rendered
+ * only around the columns scrolled into view, give or take
+ * {@link #withSliceMargin(int) sliceMargin} columns, and rendered again
+ * when horizontal scrolling leaves that slice. Slicing assumes one column
+ * per character, so tabs and wide characters in a sliced line may be
+ * shown slightly off; it does not apply to soft wrapped or folded lines.
+ *
+ * Use {@link AceEditor#setLongLineGuard(AceLongLineGuard)} to apply a guard.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceLongLineGuard {
+	private int maxTokenizedLength = 10000;
+	private int sliceThreshold = 5000;
+	private int sliceMargin = 500;
+
+	/**
+	 * Give the number of characters of a line that are tokenized.
+	 * @return number of characters
+	 */
+	public int getMaxTokenizedLength() {
+		return maxTokenizedLength;
+	}
+
+	/**
+	 * Give the length of the longest line rendered in full.
+	 * @return number of characters
+	 */
+	public int getSliceThreshold() {
+		return sliceThreshold;
+	}
+
+	/**
+	 * Give the number of columns rendered on each side of the visible part of a sliced line.
+	 * @return number of columns
+	 */
+	public int getSliceMargin() {
+		return sliceMargin;
+	}
+
+	/**
+	 * Chainable setter method for maxTokenizedLength property (10000 by default).
+	 * @param maxTokenizedLength number of characters of a line that are tokenized
+	 * @return reference to this guard
+	 */
+	public AceLongLineGuard withMaxTokenizedLength(int maxTokenizedLength) {
+		this.maxTokenizedLength = maxTokenizedLength;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for sliceThreshold property (5000 by default).
+	 * @param sliceThreshold length of the longest line rendered in full
+	 * @return reference to this guard
+	 */
+	public AceLongLineGuard withSliceThreshold(int sliceThreshold) {
+		this.sliceThreshold = sliceThreshold;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for sliceMargin property (500 by default).
+	 * @param sliceMargin number of columns rendered on each side of the visible part
+	 * @return reference to this guard
+	 */
+	public AceLongLineGuard withSliceMargin(int sliceMargin) {
+		this.sliceMargin = sliceMargin;
+		return this;
+	}
+}
@@ -0,0 +1,108 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A sequence of commands with their arguments, recorded by an
+ * {@link AceMacroRecorder}, that can be played back in any editor.
+ *
+ * Playing a macro resolves its command names against the editor once and
+ * then runs the whole program, however many times it is repeated, as one
+ * batch: the changes are undone in one step and the editor is rendered
+ * once at the end, see {@link AceEditor#execCommands(List)}.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public final class AceMacro {
+	// Array of [command name, args] pairs.
+	private final JavaScriptObject steps;
+
+	AceMacro(JavaScriptObject steps) {
+		this.steps = steps;
+	}
+
+	/**
+	 * Give the number of commands in this macro.
+	 * @return number of commands
+	 */
+	public native int size() /*-{
+		return this.@edu.ycp.cs.dh.acegwt.client.ace.AceMacro::steps.length;
+	}-*/;
+
+	/**
+	 * Give the names of the commands in this macro, in order.
+	 * @return command names
+	 */
+	public List<String> getCommandNames() {
+		List<String> names = new ArrayList<String>(size());
+		for (int i = 0; i < size(); i++)
+			names.add(getCommandName(i));
+		return names;
+	}
+
+	private native String getCommandName(int index) /*-{
+		return this.@edu.ycp.cs.dh.acegwt.client.ace.AceMacro::steps[index][0];
+	}-*/;
+
+	/**
+	 * Play this macro once.
+	 * @param editor the {@link AceEditor} to play the macro in
+	 * @throws IllegalArgumentException if the editor lacks a command of the macro
+	 */
+	public void play(AceEditor editor) {
+		play(editor, 1);
+	}
+
+	/**
+	 * Play this macro several times in a row, as one edit.
+	 * @param editor the {@link AceEditor} to play the macro in
+	 * @param times the number of times to play the macro
+	 * @throws IllegalArgumentException if the editor lacks a command of the macro
+	 */
+	public void play(AceEditor editor, int times) {
+		JavaScriptObject program = compile(editor, steps);
+		editor.startBatch();
+		try {
+			run(editor, program, times);
+		} finally {
+			editor.finishBatch(true);
+		}
+	}
+
+	private static native JavaScriptObject compile(AceEditor javaWrapper, JavaScriptObject steps) /*-{
+		var editor = javaWrapper.@edu.ycp.cs.dh.acegwt.client.ace.AceEditor::editor;
+		var program = [];
+		for (var i = 0; i < steps.length; i++) {
+			var command = editor.commands.commands[steps[i][0]];
+			if (!command)
+				@edu.ycp.cs.dh.acegwt.client.ace.AceMacro::unknownCommand(Ljava/lang/String;)(steps[i][0]);
+			program.push(command, steps[i][1]);
+		}
+		return program;
+	}-*/;
+
+	private static void unknownCommand(String name) {
+		throw new IllegalArgumentException("Editor has no command named " + name);
+	}
+
+	private static native void run(AceEditor javaWrapper, JavaScriptObject program, int times) /*-{
+		var editor = javaWrapper.@edu.ycp.cs.dh.acegwt.client.ace.AceEditor::editor;
+		var commands = editor.commands;
+		var length = program.length;
+		var inReplay = commands.$inReplay;
+		commands.$inReplay = true;
+		try {
+			for (var n = 0; n < times; n++) {
+				for (var i = 0; i < length; i += 2)
+					commands.exec(program[i], editor, program[i + 1]);
+			}
+		} finally {
+			commands.$inReplay = inReplay;
+		}
+	}-*/;
+}
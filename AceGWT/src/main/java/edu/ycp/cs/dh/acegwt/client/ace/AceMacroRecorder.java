@@ -0,0 +1,107 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Records the commands run in an editor, typed text included (Ace runs
+ * typing as "insertstring" commands), into an {@link AceMacro}.
+ *
+ * Only the commands run from outside are recorded: commands that other
+ * commands run while they execute are left out, since replaying the outer
+ * command runs them again. Commands run while a macro is played back are
+ * not recorded either.
+ *
+ * Ace does not signal the end of a command whose handler throws, so the
+ * recorder also tracks the outermost call of the editor's command manager
+ * and starts afresh when it returns. Such a command stays in the macro,
+ * as it was run when recorded.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceMacroRecorder {
+	private final AceEditor editor;
+	private JavaScriptObject recording = null;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param editor the {@link AceEditor} to record commands of
+	 */
+	public AceMacroRecorder(AceEditor editor) {
+		this.editor = editor;
+	}
+
+	/**
+	 * Start recording. Does nothing if recording already.
+	 */
+	public void start() {
+		if (recording == null)
+			recording = startRecording(editor);
+	}
+
+	/**
+	 * Stop recording.
+	 * @return the recorded {@link AceMacro}, or null if not recording
+	 */
+	public AceMacro stop() {
+		if (recording == null)
+			return null;
+		JavaScriptObject steps = stopRecording(editor, recording);
+		recording = null;
+		return new AceMacro(steps);
+	}
+
+	/**
+	 * Check whether the recorder is recording.
+	 * @return true if recording
+	 */
+	public boolean isRecording() {
+		return recording != null;
+	}
+
+	private static native JavaScriptObject startRecording(AceEditor javaWrapper) /*-{
+		var editor = javaWrapper.@edu.ycp.cs.dh.acegwt.client.ace.AceEditor::editor;
+		var commands = editor.commands;
+		var recording = {steps: [], depth: 0, calls: 0};
+		recording.onExec = function(e) {
+			if (recording.depth++ == 0 && !commands.$inReplay && e.command.name)
+				recording.steps.push([e.command.name, e.args]);
+		};
+		recording.onAfterExec = function(e) {
+			if (recording.depth > 0)
+				recording.depth--;
+		};
+		// afterExec is skipped when a command throws; the outermost call still returns.
+		recording.ownExec = commands.hasOwnProperty("exec") ? commands.exec : null;
+		var exec = commands.exec;
+		recording.exec = function() {
+			recording.calls++;
+			try {
+				return exec.apply(this, arguments);
+			} finally {
+				if (--recording.calls == 0)
+					recording.depth = 0;
+			}
+		};
+		commands.exec = recording.exec;
+		commands.on("exec", recording.onExec);
+		commands.on("afterExec", recording.onAfterExec);
+		return recording;
+	}-*/;
+
+	private static native JavaScriptObject stopRecording(AceEditor javaWrapper, JavaScriptObject recording) /*-{
+		var editor = javaWrapper.@edu.ycp.cs.dh.acegwt.client.ace.AceEditor::editor;
+		var commands = editor.commands;
+		commands.removeEventListener("exec", recording.onExec);
+		commands.removeEventListener("afterExec", recording.onAfterExec);
+		if (commands.exec === recording.exec) {
+			if (recording.ownExec)
+				commands.exec = recording.ownExec;
+			else
+				delete commands.exec;
+		}
+		return recording.steps;
+	}-*/;
+}
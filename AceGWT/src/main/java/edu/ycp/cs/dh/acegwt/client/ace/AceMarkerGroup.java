@@ -0,0 +1,199 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.List;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+
+/**
+ * A named group of markers sharing one CSS class and {@link AceMarkerType}.
+ * The whole group is rendered by a single Ace dynamic marker, so showing,
+ * hiding, clearing or replacing the group touches the editor session once
+ * instead of once per marker.
+ *
+ * Use {@link AceEditor#addMarkerGroup(String, String, AceMarkerType, boolean)}
+ * to create a group.
+ */
+public class AceMarkerGroup {
+	private final String name;
+	private final JavaScriptObject marker;
+
+	AceMarkerGroup(String name, JavaScriptObject marker) {
+		this.name = name;
+		this.marker = marker;
+	}
+
+	/**
+	 * Give the name this group was registered with.
+	 * @return group name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Add a range to this group.
+	 * @param range an {@link AceRange}
+	 */
+	public native void add(AceRange range) /*-{
+		var marker = this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker;
+		marker.ranges.push(range);
+		if (marker.visible)
+			marker.changed();
+	}-*/;
+
+	/**
+	 * Add several ranges to this group in one operation.
+	 * @param ranges the ranges to add
+	 */
+	public void addAll(List<AceRange> ranges) {
+		JsArray<AceRange> jsRanges = JavaScriptObject.createArray().cast();
+		for (AceRange range : ranges)
+			jsRanges.push(range);
+		addAll(jsRanges);
+	}
+
+	/**
+	 * Add several ranges to this group in one operation.
+	 * @param jsRanges the ranges to add
+	 */
+	public native void addAll(JsArray<AceRange> jsRanges) /*-{
+		var marker = this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker;
+		// In place, so that streaming many small batches stays linear; in slices, to bound the argument count.
+		var ranges = marker.ranges;
+		for (var i = 0; i < jsRanges.length; i += 4096)
+			Array.prototype.push.apply(ranges, jsRanges.slice(i, i + 4096));
+		if (marker.visible)
+			marker.changed();
+	}-*/;
+
+	/**
+	 * Replace all ranges of this group in one operation.
+	 * @param ranges the new ranges of this group
+	 */
+	public void replace(List<AceRange> ranges) {
+		JsArray<AceRange> jsRanges = JavaScriptObject.createArray().cast();
+		for (AceRange range : ranges)
+			jsRanges.push(range);
+		replace(jsRanges);
+	}
+
+	/**
+	 * Replace all ranges of this group in one operation. The array is
+	 * used as is, without copying.
+	 * @param ranges the new ranges of this group
+	 */
+	public native void replace(JsArray<AceRange> ranges) /*-{
+		var marker = this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker;
+		marker.detachRanges();
+		marker.ranges = ranges;
+		if (marker.visible)
+			marker.changed();
+	}-*/;
+
+	/**
+	 * Remove all ranges from this group.
+	 */
+	public native void clear() /*-{
+		var marker = this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker;
+		marker.detachRanges();
+		marker.ranges = [];
+		if (marker.visible)
+			marker.changed();
+	}-*/;
+
+	/**
+	 * Give the number of ranges in this group.
+	 * @return number of ranges
+	 */
+	public native int size() /*-{
+		return this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker.ranges.length;
+	}-*/;
+
+	/**
+	 * Show or hide all markers of this group. The ranges are kept, so
+	 * toggling visibility costs the same regardless of group size.
+	 * @param visible true to show the group, false to hide it
+	 */
+	public native void setVisible(boolean visible) /*-{
+		var marker = this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker;
+		if (marker.visible == visible)
+			return;
+		marker.visible = visible;
+		marker.changed();
+	}-*/;
+
+	/**
+	 * Check whether markers of this group are shown.
+	 * @return true if the group is visible
+	 */
+	public native boolean isVisible() /*-{
+		return this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker.visible;
+	}-*/;
+
+	/**
+	 * Give the Ace marker id of this group.
+	 * @return the marker id within the editor session
+	 */
+	native int getMarkerId() /*-{
+		return this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker.id;
+	}-*/;
+
+	/**
+	 * Release anchors of floating ranges and forget all ranges.
+	 */
+	native void detach() /*-{
+		var marker = this.@edu.ycp.cs.dh.acegwt.client.ace.AceMarkerGroup::marker;
+		marker.detachRanges();
+		marker.ranges = [];
+	}-*/;
+
+	/**
+	 * Create the dynamic marker rendering a group and register it
+	 * with the session of the given editor.
+	 */
+	static native JavaScriptObject createMarker(JavaScriptObject editor, String clazz, String type, boolean inFront) /*-{
+		var session = editor.getSession();
+		var marker = {
+			ranges: [],
+			visible: true,
+			clazz: clazz,
+			type: type,
+			changed: function() {
+				session._signal(this.inFront ? "changeFrontMarker" : "changeBackMarker");
+			},
+			detachRanges: function() {
+				for (var i = 0; i < this.ranges.length; i++) {
+					var range = this.ranges[i];
+					if (range.start && range.start.detach)
+						range.start.detach();
+					if (range.end && range.end.detach)
+						range.end.detach();
+				}
+			},
+			update: function(html, markerLayer, session, config) {
+				if (!this.visible)
+					return;
+				var ranges = this.ranges;
+				for (var i = 0; i < ranges.length; i++) {
+					var range = ranges[i];
+					if (range.end.row < config.firstRow || range.start.row > config.lastRow)
+						continue;
+					range = range.clipRows(config.firstRow, config.lastRow);
+					if (range.isEmpty())
+						continue;
+					range = range.toScreenRange(session);
+					if (this.type == "fullLine")
+						markerLayer.drawFullLineMarker(html, range, this.clazz, config);
+					else if (this.type == "screenLine")
+						markerLayer.drawScreenLineMarker(html, range, this.clazz, config);
+					else if (range.isMultiLine())
+						markerLayer.drawTextMarker(html, range, this.clazz, config);
+					else
+						markerLayer.drawSingleLineMarker(html, range, this.clazz + " ace_start", config);
+				}
+			}
+		};
+		return session.addDynamicMarker(marker, inFront);
+	}-*/;
+}
@@ -0,0 +1,54 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A snippet registered with {@link AceSnippetRegistry}. It is also an
+ * {@link AceCompletion}: its native proposal is built once at registration,
+ * so submitting it on every completion request costs no conversion.
+ * 
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceRegisteredSnippet extends AceCompletion {
+	private final String id;
+	private final AceEditorMode mode;
+	private final JavaScriptObject definition;
+	private final JavaScriptObject proposal;
+	
+	AceRegisteredSnippet(String id, AceEditorMode mode, JavaScriptObject definition, JavaScriptObject proposal) {
+		this.id = id;
+		this.mode = mode;
+		this.definition = definition;
+		this.proposal = proposal;
+	}
+	
+	/**
+	 * Give the id this snippet was registered with.
+	 * @return the snippet id
+	 */
+	public String getId() {
+		return id;
+	}
+	
+	/**
+	 * Give the mode this snippet was registered for.
+	 * @return the {@link AceEditorMode}, or null if the snippet applies to all modes
+	 */
+	public AceEditorMode getMode() {
+		return mode;
+	}
+	
+	/**
+	 * Give the snippet definition registered with Ace's snippet manager.
+	 */
+	JavaScriptObject getDefinition() {
+		return definition;
+	}
+	
+	@Override
+	JavaScriptObject toJsObject() {
+		return proposal;
+	}
+}
@@ -0,0 +1,165 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.google.gwt.user.client.Timer;
+
+/**
+ * An {@link AceCompletionProvider} fetching proposals through an
+ * {@link AceRemoteCompletionTransport}, meant for server-backed completion.
+ *
+ * Queries are not sent right away: they wait until no new query came in
+ * for the debounce delay, then all waiting queries, from any editor the
+ * provider is registered on, go out in one batch. Identical queries
+ * (same mode and prefix) share one entry, whether it is still waiting
+ * or already sent. Queries whose requests are all cancelled before they
+ * are sent are dropped from the batch; a sent batch is aborted through
+ * its transport once the requests of all its queries are cancelled,
+ * for instance because typing went on. A failed batch answers its
+ * queries with no proposals.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceRemoteCompletionProvider implements AceCompletionProvider {
+	private final AceRemoteCompletionTransport transport;
+	private final LinkedHashMap<String, Entry> queued = new LinkedHashMap<String, Entry>();
+	private final HashMap<String, Entry> inFlight = new HashMap<String, Entry>();
+	private final Timer timer = new Timer() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+	private int debounceMillis = 150;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param transport the {@link AceRemoteCompletionTransport}
+	 */
+	public AceRemoteCompletionProvider(AceRemoteCompletionTransport transport) {
+		this.transport = transport;
+	}
+
+	/**
+	 * Set how long queries wait for further queries before they are sent (150 ms by default).
+	 *
+	 * @param debounceMillis the debounce delay in milliseconds, 0 to send on the next event loop turn
+	 */
+	public void setDebounceMillis(int debounceMillis) {
+		this.debounceMillis = debounceMillis;
+	}
+
+	@Override
+	public void getProposals(AceEditor editor, AceEditorCursorPosition pos, String prefix,
+			final AceCompletionCallback callback, AceCompletionRequest request) {
+		AceRemoteCompletionQuery query = new AceRemoteCompletionQuery(editor.getModeName(), prefix);
+		String key = query.getKey();
+		Entry entry = inFlight.get(key);
+		if (entry == null)
+			entry = queued.get(key);
+		if (entry == null) {
+			entry = new Entry(query);
+			queued.put(key, entry);
+		}
+		final Entry target = entry;
+		target.waiters.add(callback);
+		request.addCancelListener(new AceCompletionRequest.CancelListener() {
+			@Override
+			public void onCancel(AceCompletionRequest cancelled) {
+				target.waiters.remove(callback);
+				if (!target.waiters.isEmpty())
+					return;
+				if (target.batch == null)
+					queued.remove(target.query.getKey());
+				else
+					abortIfUnwanted(target.batch);
+			}
+		});
+		if (target.batch == null)
+			timer.schedule(Math.max(debounceMillis, 1));
+	}
+
+	/**
+	 * Send the waiting queries now.
+	 */
+	public void flush() {
+		timer.cancel();
+		if (queued.isEmpty())
+			return;
+		final Batch batch = new Batch(new ArrayList<Entry>(queued.values()));
+		queued.clear();
+		List<AceRemoteCompletionQuery> queries = new ArrayList<AceRemoteCompletionQuery>(batch.entries.size());
+		for (Entry entry : batch.entries) {
+			entry.batch = batch;
+			inFlight.put(entry.query.getKey(), entry);
+			queries.add(entry.query);
+		}
+		batch.fetch = transport.fetch(queries, new AceRemoteCompletionTransport.Callback() {
+			@Override
+			public void onSuccess(List<AceCompletionList> results) {
+				batch.done = true;
+				for (int i = 0; i < batch.entries.size(); i++)
+					answer(batch.entries.get(i), i < results.size() ? results.get(i) : AceCompletionList.create());
+			}
+
+			@Override
+			public void onFailure(Throwable caught) {
+				batch.done = true;
+				for (Entry entry : batch.entries)
+					answer(entry, AceCompletionList.create());
+			}
+		});
+	}
+
+	private void abortIfUnwanted(Batch batch) {
+		if (batch.done || batch.fetch == null)
+			return;
+		for (Entry entry : batch.entries) {
+			if (!entry.waiters.isEmpty())
+				return;
+		}
+		batch.fetch.cancel();
+		batch.fetch = null;
+		for (Entry entry : batch.entries) {
+			String key = entry.query.getKey();
+			if (inFlight.get(key) == entry)
+				inFlight.remove(key);
+		}
+	}
+
+	private void answer(Entry entry, AceCompletionList proposals) {
+		String key = entry.query.getKey();
+		if (inFlight.get(key) == entry)
+			inFlight.remove(key);
+		for (AceCompletionCallback waiter : new ArrayList<AceCompletionCallback>(entry.waiters))
+			proposals.submitTo(waiter);
+		entry.waiters.clear();
+	}
+
+	private static class Batch {
+		final List<Entry> entries;
+		AceRemoteCompletionTransport.Fetch fetch;
+		boolean done;
+
+		Batch(List<Entry> entries) {
+			this.entries = entries;
+		}
+	}
+
+	private static class Entry {
+		final AceRemoteCompletionQuery query;
+		final List<AceCompletionCallback> waiters = new ArrayList<AceCompletionCallback>();
+		// Set once sent.
+		Batch batch;
+
+		Entry(AceRemoteCompletionQuery query) {
+			this.query = query;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+/**
+ * What an {@link AceRemoteCompletionProvider} asks its transport for:
+ * the proposals for a prefix in a mode. Queries with the same mode and
+ * prefix are identical and answered once, whichever editors sent them.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceRemoteCompletionQuery {
+	private final String mode;
+	private final String prefix;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param mode   the name of the editor mode, see {@link AceEditorMode#getName()}; may be null
+	 * @param prefix the typed prefix
+	 */
+	public AceRemoteCompletionQuery(String mode, String prefix) {
+		this.mode = mode;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Give the name of the editor mode.
+	 * @return the mode name, or null if the editor has no mode
+	 */
+	public String getMode() {
+		return mode;
+	}
+
+	/**
+	 * Give the typed prefix.
+	 * @return the prefix
+	 */
+	public String getPrefix() {
+		return prefix;
+	}
+
+	/**
+	 * Give a key equal for identical queries.
+	 * @return the key
+	 */
+	String getKey() {
+		return (mode != null ? mode : "") + '\n' + prefix;
+	}
+}
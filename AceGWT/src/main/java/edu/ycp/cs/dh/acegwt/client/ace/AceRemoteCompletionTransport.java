@@ -0,0 +1,52 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.List;
+
+/**
+ * Carries batches of {@link AceRemoteCompletionQuery}s to wherever the
+ * proposals come from, for an {@link AceRemoteCompletionProvider}.
+ * See {@link AceHttpCompletionTransport} for an HTTP transport and
+ * {@link AceInProcessCompletionTransport} for an in-process stand-in.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public interface AceRemoteCompletionTransport {
+	/**
+	 * Fetch the proposals for a batch of queries in one call.
+	 *
+	 * @param queries  the queries, never empty
+	 * @param callback the {@link Callback} to pass the answers to
+	 * @return a {@link Fetch} to abort the call with
+	 */
+	public Fetch fetch(List<AceRemoteCompletionQuery> queries, Callback callback);
+
+	/**
+	 * A call in progress.
+	 */
+	public static interface Fetch {
+		/**
+		 * Abort the call, when nobody waits for its answers any more.
+		 * The callback is not invoked afterwards.
+		 */
+		public void cancel();
+	}
+
+	/**
+	 * Callback receiving the answers to a batch.
+	 */
+	public static interface Callback {
+		/**
+		 * Pass on the answers.
+		 * @param results one list of proposals per query, in the order of the queries
+		 */
+		public void onSuccess(List<AceCompletionList> results);
+
+		/**
+		 * Report that the batch could not be answered.
+		 * @param caught the failure
+		 */
+		public void onFailure(Throwable caught);
+	}
+}
@@ -0,0 +1,104 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Options of {@link AceEditor#find(String, AceSearchOptions)} and
+ * {@link AceEditor#replaceAll(String, String, AceSearchOptions)}.
+ * By default the query is plain text, matched in either case anywhere
+ * in the document.
+ */
+public class AceSearchOptions {
+	private boolean regExp = false;
+	private boolean caseSensitive = false;
+	private boolean wholeWord = false;
+	private AceRange range = null;
+
+	/**
+	 * Tell whether the query is a regular expression.
+	 * @return true for a regular expression
+	 */
+	public boolean isRegExp() {
+		return regExp;
+	}
+
+	/**
+	 * Tell whether matching is case sensitive.
+	 * @return true if case sensitive
+	 */
+	public boolean isCaseSensitive() {
+		return caseSensitive;
+	}
+
+	/**
+	 * Tell whether only whole words match.
+	 * @return true if only whole words match
+	 */
+	public boolean isWholeWord() {
+		return wholeWord;
+	}
+
+	/**
+	 * Give the range searched in.
+	 * @return the range, or null for the whole document
+	 */
+	public AceRange getRange() {
+		return range;
+	}
+
+	/**
+	 * Chainable setter method for regExp property.
+	 * @param regExp true if the query is a JavaScript regular expression; replacements
+	 * 		may then refer to groups as <code>$1</code>
+	 * @return reference to these options
+	 */
+	public AceSearchOptions withRegExp(boolean regExp) {
+		this.regExp = regExp;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for caseSensitive property.
+	 * @param caseSensitive true for case sensitive matching
+	 * @return reference to these options
+	 */
+	public AceSearchOptions withCaseSensitive(boolean caseSensitive) {
+		this.caseSensitive = caseSensitive;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for wholeWord property.
+	 * @param wholeWord true if only whole words match
+	 * @return reference to these options
+	 */
+	public AceSearchOptions withWholeWord(boolean wholeWord) {
+		this.wholeWord = wholeWord;
+		return this;
+	}
+
+	/**
+	 * Chainable setter method for range property.
+	 * @param range the range to search in, or null for the whole document
+	 * @return reference to these options
+	 */
+	public AceSearchOptions withRange(AceRange range) {
+		this.range = range;
+		return this;
+	}
+
+	/**
+	 * Create the options object of an Ace search.
+	 * @param needle the query
+	 * @return Ace search options javascript object
+	 */
+	native JavaScriptObject toJavaScript(String needle) /*-{
+		return {
+			needle: needle,
+			regExp: this.@edu.ycp.cs.dh.acegwt.client.ace.AceSearchOptions::regExp,
+			caseSensitive: this.@edu.ycp.cs.dh.acegwt.client.ace.AceSearchOptions::caseSensitive,
+			wholeWord: this.@edu.ycp.cs.dh.acegwt.client.ace.AceSearchOptions::wholeWord,
+			range: this.@edu.ycp.cs.dh.acegwt.client.ace.AceSearchOptions::range
+		};
+	}-*/;
+}
@@ -0,0 +1,199 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.HashMap;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Registry of snippets shared by all editors. Each snippet is compiled
+ * once, when it is registered: its text is built and escaped, it is
+ * registered with Ace's snippet manager in the scope of its mode (so
+ * that its tab trigger, if it has one, expands it), and its completion
+ * proposal is built. Completion providers then refer to snippets by id,
+ * through {@link #get(String)} or
+ * {@link AceCompletionList#addRegisteredSnippet(String)}, instead of
+ * building an {@link AceCompletionSnippet} on every request.
+ * 
+ * Registered snippets are left out of the proposals of Ace's built-in
+ * snippet completer, so a provider proposing them does not show them
+ * twice; they are only proposed by the providers that add them.
+ * 
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public final class AceSnippetRegistry {
+	private static final HashMap<String, AceRegisteredSnippet> snippets = new HashMap<String, AceRegisteredSnippet>();
+	
+	private AceSnippetRegistry() {
+	}
+	
+	/**
+	 * Register a snippet built from segments, replacing any snippet registered with the same id.
+	 * 
+	 * @param id              the id completion providers refer to the snippet by
+	 * @param mode            the mode the snippet applies to, or null for all modes
+	 * @param caption         the caption shown in the dropdown box
+	 * @param snippetSegments the segments that make up the snippet, escaped automatically
+	 * @param meta            the category shown right aligned in the dropdown box
+	 * @param htmlTooltip     the HTML tooltip, may be null
+	 * @param score           the score, higher values appear closer to the top
+	 * @return the {@link AceRegisteredSnippet}
+	 */
+	public static AceRegisteredSnippet register(String id, AceEditorMode mode, String caption,
+			AceCompletionSnippetSegment[] snippetSegments, String meta, String htmlTooltip, int score) {
+		return register(id, mode, caption, null, AceCompletionSnippet.compile(snippetSegments), meta, htmlTooltip, score);
+	}
+	
+	/**
+	 * Register a snippet built from segments and expanded by a tab trigger,
+	 * replacing any snippet registered with the same id.
+	 * 
+	 * @param id              the id completion providers refer to the snippet by
+	 * @param mode            the mode the snippet applies to, or null for all modes
+	 * @param caption         the caption shown in the dropdown box
+	 * @param tabTrigger      the word expanded to the snippet when tab is pressed after it, or null
+	 * @param snippetSegments the segments that make up the snippet, escaped automatically
+	 * @param meta            the category shown right aligned in the dropdown box
+	 * @param htmlTooltip     the HTML tooltip, may be null
+	 * @param score           the score, higher values appear closer to the top
+	 * @return the {@link AceRegisteredSnippet}
+	 */
+	public static AceRegisteredSnippet register(String id, AceEditorMode mode, String caption, String tabTrigger,
+			AceCompletionSnippetSegment[] snippetSegments, String meta, String htmlTooltip, int score) {
+		return register(id, mode, caption, tabTrigger, AceCompletionSnippet.compile(snippetSegments), meta, htmlTooltip, score);
+	}
+	
+	/**
+	 * Register a snippet given as escaped text, replacing any snippet registered with the same id.
+	 * See {@link AceCompletionSnippet#AceCompletionSnippet(String, String, int, String, String)}
+	 * for the format of the text.
+	 * 
+	 * @param id          the id completion providers refer to the snippet by
+	 * @param mode        the mode the snippet applies to, or null for all modes
+	 * @param caption     the caption shown in the dropdown box
+	 * @param snippet     the escaped snippet text
+	 * @param meta        the category shown right aligned in the dropdown box
+	 * @param htmlTooltip the HTML tooltip, may be null
+	 * @param score       the score, higher values appear closer to the top
+	 * @return the {@link AceRegisteredSnippet}
+	 */
+	public static AceRegisteredSnippet register(String id, AceEditorMode mode, String caption,
+			String snippet, String meta, String htmlTooltip, int score) {
+		return register(id, mode, caption, null, snippet, meta, htmlTooltip, score);
+	}
+	
+	/**
+	 * Register a snippet given as escaped text and expanded by a tab trigger,
+	 * replacing any snippet registered with the same id.
+	 * See {@link AceCompletionSnippet#AceCompletionSnippet(String, String, int, String, String)}
+	 * for the format of the text.
+	 * 
+	 * @param id          the id completion providers refer to the snippet by
+	 * @param mode        the mode the snippet applies to, or null for all modes
+	 * @param caption     the caption shown in the dropdown box
+	 * @param tabTrigger  the word expanded to the snippet when tab is pressed after it, or null
+	 * @param snippet     the escaped snippet text
+	 * @param meta        the category shown right aligned in the dropdown box
+	 * @param htmlTooltip the HTML tooltip, may be null
+	 * @param score       the score, higher values appear closer to the top
+	 * @return the {@link AceRegisteredSnippet}
+	 */
+	public static AceRegisteredSnippet register(String id, AceEditorMode mode, String caption, String tabTrigger,
+			String snippet, String meta, String htmlTooltip, int score) {
+		unregister(id);
+		String scope = mode != null ? mode.getName() : "_";
+		JavaScriptObject definition = registerImpl(caption, tabTrigger, snippet, scope);
+		JavaScriptObject proposal = createProposal(caption, snippet, meta, htmlTooltip, score);
+		AceRegisteredSnippet registered = new AceRegisteredSnippet(id, mode, definition, proposal);
+		snippets.put(id, registered);
+		return registered;
+	}
+	
+	/**
+	 * Give a registered snippet.
+	 * 
+	 * @param id the snippet id
+	 * @return the {@link AceRegisteredSnippet}, or null if no snippet is registered with this id
+	 */
+	public static AceRegisteredSnippet get(String id) {
+		return snippets.get(id);
+	}
+	
+	/**
+	 * Remove a snippet from the registry and from Ace's snippet manager.
+	 * 
+	 * @param id the snippet id
+	 * @return true if a snippet was registered with this id
+	 */
+	public static boolean unregister(String id) {
+		AceRegisteredSnippet registered = snippets.remove(id);
+		if (registered == null)
+			return false;
+		unregisterImpl(registered.getDefinition());
+		return true;
+	}
+	
+	private static native JavaScriptObject registerImpl(String caption, String tabTrigger,
+			String snippet, String scope) /*-{
+		var snippetManager = $wnd.ace.require("ace/snippets").snippetManager;
+		var definition = {
+			name: caption,
+			content: snippet,
+			scope: scope
+		};
+		if (tabTrigger != null)
+			definition.tabTrigger = tabTrigger;
+		snippetManager.register(definition, scope);
+		@edu.ycp.cs.dh.acegwt.client.ace.AceSnippetRegistry::hideFromSnippetCompleter(Lcom/google/gwt/core/client/JavaScriptObject;I)(definition, 1);
+		return definition;
+	}-*/;
+	
+	private static native void unregisterImpl(JavaScriptObject definition) /*-{
+		var snippetManager = $wnd.ace.require("ace/snippets").snippetManager;
+		@edu.ycp.cs.dh.acegwt.client.ace.AceSnippetRegistry::hideFromSnippetCompleter(Lcom/google/gwt/core/client/JavaScriptObject;I)(definition, -1);
+		// Ace drops snippets by name, which a later snippet may have taken over.
+		var nameMap = snippetManager.snippetNameMap[definition.scope];
+		if (nameMap && nameMap[definition.name] === definition)
+			snippetManager.unregister(definition, definition.scope);
+	}-*/;
+	
+	// The built-in completer builds its proposals from the definitions
+	// without a reference back, so they are told apart by caption and text.
+	private static native void hideFromSnippetCompleter(JavaScriptObject definition, int delta) /*-{
+		var completer = $wnd.ace.require("ace/ext/language_tools").snippetCompleter;
+		var hidden = completer.$aceGwtHidden;
+		if (!hidden) {
+			hidden = completer.$aceGwtHidden = {};
+			var getCompletions = completer.getCompletions;
+			completer.getCompletions = function(editor, session, pos, prefix, callback) {
+				getCompletions.call(this, editor, session, pos, prefix, function(err, completions) {
+					if (completions) {
+						completions = completions.filter(function(completion) {
+							return !hidden[completion.caption + "\n" + completion.snippet];
+						});
+					}
+					callback(err, completions);
+				});
+			};
+		}
+		var key = definition.name + "\n" + definition.content;
+		var count = (hidden[key] || 0) + delta;
+		if (count > 0)
+			hidden[key] = count;
+		else
+			delete hidden[key];
+	}-*/;
+	
+	private static native JavaScriptObject createProposal(String caption, String snippet,
+			String meta, String htmlTooltip, int score) /*-{
+		return {
+			caption: caption,
+			snippet: snippet,
+			score: score,
+			meta: meta,
+			aceGwtHtmlTooltip: htmlTooltip,
+			aceGwtScore: score
+		};
+	}-*/;
+}
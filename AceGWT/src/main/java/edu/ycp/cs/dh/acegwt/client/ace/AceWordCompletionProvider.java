@@ -0,0 +1,219 @@
+package edu.ycp.cs.dh.acegwt.client.ace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * An {@link AceCompletionProvider} proposing the words of the document,
+ * meant to replace Ace's local completer on large documents.
+ *
+ * The words of each editor are counted in an index built on the first
+ * request and then kept up to date from change events, re-reading only
+ * the lines an edit touched. Requests are answered from the index, so
+ * their cost does not depend on the size of the document. Words are
+ * split the way Ace's local completer splits them and proposed when they
+ * start with the typed prefix, in either case, most frequent first.
+ * The index of an editor is released when the editor is destroyed.
+ *
+ * Use {@link #install(AceEditor)} to register the provider on an editor
+ * in place of Ace's local completer.
+ *
+ * <strong>Warning</strong>: this is an experimental feature of AceGWT.
+ * It is possible that the API will change in an incompatible way
+ * in future releases.
+ */
+public class AceWordCompletionProvider implements AceCompletionProvider {
+	private final HashMap<AceEditor, Holder> holders = new HashMap<AceEditor, Holder>();
+	private int maxResults = 200;
+
+	/**
+	 * Register this provider on an editor and turn off Ace's local completer there.
+	 *
+	 * @param editor the {@link AceEditor}
+	 */
+	public void install(AceEditor editor) {
+		editor.setLocalCompleterEnabled(false);
+		editor.registerCompletionProvider(this);
+	}
+
+	/**
+	 * Set the maximum number of proposals returned for one request (200 by default).
+	 * @param maxResults the maximum number of proposals
+	 */
+	public void setMaxResults(int maxResults) {
+		this.maxResults = maxResults;
+	}
+
+	/**
+	 * Drop the index of an editor; it is rebuilt on the next request.
+	 *
+	 * @param editor the {@link AceEditor}
+	 */
+	public void invalidate(AceEditor editor) {
+		Holder holder = holders.get(editor);
+		if (holder != null)
+			holder.index = null;
+	}
+
+	/**
+	 * Drop the index of an editor and stop following its changes.
+	 * This happens by itself when the editor is destroyed.
+	 *
+	 * @param editor the {@link AceEditor}
+	 */
+	public void release(AceEditor editor) {
+		Holder holder = holders.remove(editor);
+		if (holder != null) {
+			AceEditor.unobserveChanges(holder.changeHandle);
+			editor.removeDestroyListener(holder.destroyListener);
+		}
+	}
+
+	@Override
+	public void getProposals(AceEditor editor, AceEditorCursorPosition pos, String prefix,
+			AceCompletionCallback callback, AceCompletionRequest request) {
+		List<AceCompletionValue> proposals = query(editor, prefix);
+		callback.invokeWithCompletions(proposals.toArray(new AceCompletionValue[proposals.size()]));
+	}
+
+	/**
+	 * Find the words of an editor's document starting with a prefix,
+	 * most frequent first. The word being typed is left out.
+	 *
+	 * @param editor the {@link AceEditor}
+	 * @param prefix the typed prefix
+	 * @return at most {@link #setMaxResults(int) maxResults} proposals
+	 */
+	public List<AceCompletionValue> query(AceEditor editor, String prefix) {
+		final WordIndex index = getIndex(editor);
+		String lower = prefix.toLowerCase();
+		List<String> words = new ArrayList<String>();
+		for (String key : index.sorted.subSet(lower, lower + '\uffff')) {
+			String word = key.substring(key.indexOf('\u0000') + 1);
+			if (!word.equals(prefix) || index.counts.get(word) > 1)
+				words.add(word);
+		}
+		if (words.size() > maxResults) {
+			Collections.sort(words, new Comparator<String>() {
+				@Override
+				public int compare(String a, String b) {
+					return index.counts.get(b) - index.counts.get(a);
+				}
+			});
+			words = words.subList(0, maxResults);
+		}
+		List<AceCompletionValue> proposals = new ArrayList<AceCompletionValue>(words.size());
+		for (String word : words)
+			proposals.add(new AceCompletionValue(word, word, "local", index.counts.get(word)));
+		return proposals;
+	}
+
+	private WordIndex getIndex(final AceEditor editor) {
+		Holder holder = holders.get(editor);
+		if (holder == null) {
+			final Holder newHolder = new Holder();
+			newHolder.changeHandle = editor.observeChanges(new AceEditorCallback() {
+				@Override
+				public void invokeAceCallback(JavaScriptObject obj) {
+					if (newHolder.index != null && !newHolder.index.update(editor, obj))
+						newHolder.index = null;
+				}
+			});
+			newHolder.destroyListener = new AceEditor.DestroyListener() {
+				@Override
+				public void onDestroy(AceEditor destroyed) {
+					release(destroyed);
+				}
+			};
+			editor.addDestroyListener(newHolder.destroyListener);
+			holders.put(editor, newHolder);
+			holder = newHolder;
+		}
+		if (holder.index == null)
+			holder.index = new WordIndex(editor);
+		return holder.index;
+	}
+
+	private static native JsArrayString splitWords(String line) /*-{
+		return line.split(/[^a-zA-Z_0-9\$\-\u00C0-\u1FFF\u2C00-\uD7FF\w]+/);
+	}-*/;
+
+	private static class Holder {
+		WordIndex index;
+		JavaScriptObject changeHandle;
+		AceEditor.DestroyListener destroyListener;
+	}
+
+	private static class WordIndex {
+		final List<JsArrayString> lines = new ArrayList<JsArrayString>();
+		final HashMap<String, Integer> counts = new HashMap<String, Integer>();
+		// Lower-cased word, NUL, word: case-insensitive prefix ranges.
+		final TreeSet<String> sorted = new TreeSet<String>();
+
+		WordIndex(AceEditor editor) {
+			insertLines(editor, 0, editor.getLineCount());
+		}
+
+		/**
+		 * Apply a change event.
+		 * @return false if the event could not be applied
+		 */
+		boolean update(AceEditor editor, JavaScriptObject changeEvent) {
+			int[] rows = AceEditor.getChangedRows(changeEvent);
+			if (rows == null || rows[0] + rows[1] > lines.size())
+				return false;
+			List<JsArrayString> removed = lines.subList(rows[0], rows[0] + rows[1]);
+			for (JsArrayString words : removed) {
+				for (int i = 0; i < words.length(); i++)
+					remove(words.get(i));
+			}
+			removed.clear();
+			insertLines(editor, rows[0], rows[2]);
+			return true;
+		}
+
+		private void insertLines(AceEditor editor, int start, int count) {
+			List<JsArrayString> inserted = new ArrayList<JsArrayString>(count);
+			for (int row = start; row < start + count; row++) {
+				JsArrayString words = splitWords(editor.getLine(row));
+				for (int i = 0; i < words.length(); i++)
+					add(words.get(i));
+				inserted.add(words);
+			}
+			lines.addAll(start, inserted);
+		}
+
+		private void add(String word) {
+			if (word.isEmpty())
+				return;
+			Integer count = counts.get(word);
+			if (count == null) {
+				counts.put(word, 1);
+				sorted.add(word.toLowerCase() + '\u0000' + word);
+			} else {
+				counts.put(word, count + 1);
+			}
+		}
+
+		private void remove(String word) {
+			if (word.isEmpty())
+				return;
+			Integer count = counts.get(word);
+			if (count == null)
+				return;
+			if (count == 1) {
+				counts.remove(word);
+				sorted.remove(word.toLowerCase() + '\u0000' + word);
+			} else {
+				counts.put(word, count - 1);
+			}
+		}
+	}
+}
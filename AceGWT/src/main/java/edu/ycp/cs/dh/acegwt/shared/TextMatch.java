@@ -0,0 +1,52 @@
+package edu.ycp.cs.dh.acegwt.shared;
+
+/**
+ * A match found by a {@link TrigramIndex}: a span of one line of a document.
+ */
+public class TextMatch {
+	private final int row;
+	private final int startColumn;
+	private final int endColumn;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param row         the row of the line
+	 * @param startColumn the column where the match starts
+	 * @param endColumn   the column right after the match
+	 */
+	public TextMatch(int row, int startColumn, int endColumn) {
+		this.row = row;
+		this.startColumn = startColumn;
+		this.endColumn = endColumn;
+	}
+
+	/**
+	 * Give the row of the line.
+	 * @return the row
+	 */
+	public int getRow() {
+		return row;
+	}
+
+	/**
+	 * Give the column where the match starts.
+	 * @return the start column
+	 */
+	public int getStartColumn() {
+		return startColumn;
+	}
+
+	/**
+	 * Give the column right after the match.
+	 * @return the end column
+	 */
+	public int getEndColumn() {
+		return endColumn;
+	}
+
+	@Override
+	public String toString() {
+		return "TextMatch [row=" + row + ", startColumn=" + startColumn + ", endColumn=" + endColumn + "]";
+	}
+}
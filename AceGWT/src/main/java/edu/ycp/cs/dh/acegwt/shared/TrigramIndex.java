@@ -0,0 +1,271 @@
+package edu.ycp.cs.dh.acegwt.shared;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gwt.regexp.shared.MatchResult;
+import com.google.gwt.regexp.shared.RegExp;
+
+/**
+ * A full-text index over many documents, each a list of lines, for
+ * searching all of them at once.
+ *
+ * For each document the index counts the lower-cased three-character
+ * sequences (trigrams) of its lines and keeps, per trigram, the set of
+ * documents containing it. A query only scans the documents containing
+ * every trigram of the searched text, which is usually a small part of
+ * them. Documents are updated line by line, so following the edits of
+ * an open document costs in proportion to the lines each edit touches.
+ * Lines are also kept lower-cased one character at a time, so
+ * case-insensitive queries need no case mapping per query and the
+ * columns of their matches hold in the original lines.
+ *
+ * Matches never span lines. The index is plain Java, usable both on
+ * the client and on the server.
+ */
+public class TrigramIndex {
+	private final LinkedHashMap<String, Document> documents = new LinkedHashMap<String, Document>();
+	private final HashMap<String, HashSet<String>> postings = new HashMap<String, HashSet<String>>();
+
+	/**
+	 * Add a document, or replace the document with the same id.
+	 *
+	 * @param id    the document id
+	 * @param lines the lines of the document
+	 */
+	public void setDocument(String id, List<String> lines) {
+		removeDocument(id);
+		Document document = new Document(id);
+		documents.put(id, document);
+		insertLines(document, 0, lines);
+	}
+
+	/**
+	 * Remove a document.
+	 *
+	 * @param id the document id
+	 * @return true if the document was in the index
+	 */
+	public boolean removeDocument(String id) {
+		Document document = documents.remove(id);
+		if (document == null)
+			return false;
+		for (String trigram : document.counts.keySet())
+			removePosting(trigram, id);
+		return true;
+	}
+
+	/**
+	 * Replace some lines of a document.
+	 *
+	 * @param id           the document id
+	 * @param startRow     the first replaced row
+	 * @param removedCount the number of rows replaced
+	 * @param newLines     the lines replacing them
+	 * @throws IllegalArgumentException if there is no such document or the rows are out of range
+	 */
+	public void replaceLines(String id, int startRow, int removedCount, List<String> newLines) {
+		Document document = documents.get(id);
+		if (document == null)
+			throw new IllegalArgumentException("No document with id " + id);
+		if (startRow < 0 || removedCount < 0 || startRow + removedCount > document.lines.size())
+			throw new IllegalArgumentException("Rows " + startRow + " to " + (startRow + removedCount)
+					+ " out of range for document " + id);
+		List<String> removed = document.lowerLines.subList(startRow, startRow + removedCount);
+		for (String line : removed)
+			count(document, line, -1);
+		removed.clear();
+		document.lines.subList(startRow, startRow + removedCount).clear();
+		insertLines(document, startRow, newLines);
+	}
+
+	/**
+	 * Give the ids of the indexed documents, in the order they were added.
+	 * @return the document ids
+	 */
+	public Set<String> getDocumentIds() {
+		return Collections.unmodifiableSet(documents.keySet());
+	}
+
+	/**
+	 * Give the number of lines of a document.
+	 * @param id the document id
+	 * @return the number of lines, or -1 if there is no such document
+	 */
+	public int getLineCount(String id) {
+		Document document = documents.get(id);
+		return document != null ? document.lines.size() : -1;
+	}
+
+	/**
+	 * Give the documents that may contain a text: those containing all
+	 * of its trigrams, or all documents for texts shorter than three
+	 * characters.
+	 *
+	 * @param text the text
+	 * @return the candidate document ids
+	 */
+	public Set<String> getCandidates(String text) {
+		String lower = toLowerCase(text);
+		if (lower.length() < 3)
+			return new HashSet<String>(documents.keySet());
+		List<HashSet<String>> sets = new ArrayList<HashSet<String>>();
+		HashSet<String> smallest = null;
+		for (int i = 0; i + 3 <= lower.length(); i++) {
+			HashSet<String> set = postings.get(lower.substring(i, i + 3));
+			if (set == null)
+				return new HashSet<String>();
+			sets.add(set);
+			if (smallest == null || set.size() < smallest.size())
+				smallest = set;
+		}
+		Set<String> result = new HashSet<String>();
+		outer: for (String id : smallest) {
+			for (HashSet<String> set : sets) {
+				if (!set.contains(id))
+					continue outer;
+			}
+			result.add(id);
+		}
+		return result;
+	}
+
+	/**
+	 * Find the occurrences of a text in all documents.
+	 *
+	 * @param text          the text, which must not contain line breaks
+	 * @param caseSensitive true for case sensitive matching
+	 * @return the matches per document id, in document order, for documents with matches
+	 */
+	public Map<String, List<TextMatch>> find(String text, boolean caseSensitive) {
+		if (text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0)
+			throw new IllegalArgumentException("Searched text must not contain line breaks");
+		Map<String, List<TextMatch>> result = new LinkedHashMap<String, List<TextMatch>>();
+		if (text.isEmpty())
+			return result;
+		String needle = caseSensitive ? text : toLowerCase(text);
+		Set<String> candidates = getCandidates(text);
+		for (Document document : documents.values()) {
+			if (!candidates.contains(document.id))
+				continue;
+			List<TextMatch> matches = new ArrayList<TextMatch>();
+			List<String> lines = caseSensitive ? document.lines : document.lowerLines;
+			for (int row = 0; row < lines.size(); row++) {
+				String line = lines.get(row);
+				for (int index = line.indexOf(needle); index >= 0; index = line.indexOf(needle, index + needle.length()))
+					matches.add(new TextMatch(row, index, index + needle.length()));
+			}
+			if (!matches.isEmpty())
+				result.put(document.id, matches);
+		}
+		return result;
+	}
+
+	/**
+	 * Find the matches of a regular expression in all documents. Only the
+	 * documents that may contain a text every match must contain are
+	 * scanned; without one, all documents are.
+	 *
+	 * @param pattern       the JavaScript regular expression
+	 * @param caseSensitive true for case sensitive matching
+	 * @param requiredText  a text every match contains, or null
+	 * @return the matches per document id, in document order, for documents with matches
+	 */
+	public Map<String, List<TextMatch>> findRegExp(String pattern, boolean caseSensitive, String requiredText) {
+		RegExp regExp = RegExp.compile(pattern, caseSensitive ? "g" : "gi");
+		Set<String> candidates = requiredText != null ? getCandidates(requiredText) : null;
+		Map<String, List<TextMatch>> result = new LinkedHashMap<String, List<TextMatch>>();
+		for (Document document : documents.values()) {
+			if (candidates != null && !candidates.contains(document.id))
+				continue;
+			List<TextMatch> matches = new ArrayList<TextMatch>();
+			for (int row = 0; row < document.lines.size(); row++) {
+				String line = document.lines.get(row);
+				regExp.setLastIndex(0);
+				for (MatchResult match = regExp.exec(line); match != null; match = regExp.exec(line)) {
+					int length = match.getGroup(0).length();
+					if (length == 0) {
+						if (regExp.getLastIndex() >= line.length())
+							break;
+						regExp.setLastIndex(regExp.getLastIndex() + 1);
+						continue;
+					}
+					matches.add(new TextMatch(row, match.getIndex(), match.getIndex() + length));
+				}
+			}
+			if (!matches.isEmpty())
+				result.put(document.id, matches);
+		}
+		return result;
+	}
+
+	private void insertLines(Document document, int startRow, List<String> lines) {
+		List<String> lowerLines = new ArrayList<String>(lines.size());
+		for (String line : lines) {
+			String lower = toLowerCase(line);
+			count(document, lower, 1);
+			lowerLines.add(lower);
+		}
+		document.lines.addAll(startRow, lines);
+		document.lowerLines.addAll(startRow, lowerLines);
+	}
+
+	// Unlike String.toLowerCase(), never changes the length of the text.
+	private static String toLowerCase(String text) {
+		StringBuilder lower = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++)
+			lower.append(Character.toLowerCase(text.charAt(i)));
+		return lower.toString();
+	}
+
+	private void count(Document document, String lower, int delta) {
+		for (int i = 0; i + 3 <= lower.length(); i++) {
+			String trigram = lower.substring(i, i + 3);
+			Integer count = document.counts.get(trigram);
+			int newCount = (count != null ? count : 0) + delta;
+			if (newCount > 0) {
+				document.counts.put(trigram, newCount);
+				if (count == null)
+					addPosting(trigram, document.id);
+			} else if (count != null) {
+				document.counts.remove(trigram);
+				removePosting(trigram, document.id);
+			}
+		}
+	}
+
+	private void addPosting(String trigram, String id) {
+		HashSet<String> set = postings.get(trigram);
+		if (set == null) {
+			set = new HashSet<String>();
+			postings.put(trigram, set);
+		}
+		set.add(id);
+	}
+
+	private void removePosting(String trigram, String id) {
+		HashSet<String> set = postings.get(trigram);
+		if (set == null)
+			return;
+		set.remove(id);
+		if (set.isEmpty())
+			postings.remove(trigram);
+	}
+
+	private static class Document {
+		final String id;
+		final ArrayList<String> lines = new ArrayList<String>();
+		final ArrayList<String> lowerLines = new ArrayList<String>();
+		final HashMap<String, Integer> counts = new HashMap<String, Integer>();
+
+		Document(String id) {
+			this.id = id;
+		}
+	}
+}
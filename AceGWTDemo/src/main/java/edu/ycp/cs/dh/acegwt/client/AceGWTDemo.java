@@ -20,6 +20,7 @@ import edu.ycp.cs.dh.acegwt.client.ace.AceCommandDescription;
 import edu.ycp.cs.dh.acegwt.client.ace.AceCompletion;
 import edu.ycp.cs.dh.acegwt.client.ace.AceCompletionCallback;
 import edu.ycp.cs.dh.acegwt.client.ace.AceCompletionProvider;
+import edu.ycp.cs.dh.acegwt.client.ace.AceCompletionRequest;
 import edu.ycp.cs.dh.acegwt.client.ace.AceCompletionSnippet;
 import edu.ycp.cs.dh.acegwt.client.ace.AceCompletionSnippetSegment;
 import edu.ycp.cs.dh.acegwt.client.ace.AceCompletionSnippetSegmentLiteral;
@@ -31,8 +32,10 @@ import edu.ycp.cs.dh.acegwt.client.ace.AceEditorCallback;
 import edu.ycp.cs.dh.acegwt.client.ace.AceEditorCursorPosition;
 import edu.ycp.cs.dh.acegwt.client.ace.AceEditorMode;
 import edu.ycp.cs.dh.acegwt.client.ace.AceEditorTheme;
+import edu.ycp.cs.dh.acegwt.client.ace.AceHttpCompletionTransport;
 import edu.ycp.cs.dh.acegwt.client.ace.AceMarkerType;
 import edu.ycp.cs.dh.acegwt.client.ace.AceRange;
+import edu.ycp.cs.dh.acegwt.client.ace.AceRemoteCompletionProvider;
 import edu.ycp.cs.dh.acegwt.client.ace.AceSelection;
 import edu.ycp.cs.dh.acegwt.client.ace.AceSelectionListener;
 
@@ -56,7 +59,8 @@ public class AceGWTDemo implements EntryPoint {
 	private static class MyCompletionProvider implements AceCompletionProvider {
 		@Override		
 
-		public void getProposals(AceEditor editor, AceEditorCursorPosition pos, String prefix, AceCompletionCallback callback) {
+		public void getProposals(AceEditor editor, AceEditorCursorPosition pos, String prefix, AceCompletionCallback callback,
+				AceCompletionRequest request) {
 			GWT.log("sending completion proposals");
 			callback.invokeWithCompletions(new AceCompletion[]{
 					new AceCompletionValue("first", "firstcompletion", "custom", 10),
@@ -94,8 +98,11 @@ public class AceGWTDemo implements EntryPoint {
 		editor2.setWidth("800px");
 		editor2.setHeight("300px");
 		
-		// Try out custom code completer
-		AceEditor.addCompletionProvider(new MyCompletionProvider());
+		// Try out custom code completer (only in the first editor, and only in Java mode)
+		editor1.registerCompletionProvider(new MyCompletionProvider(), AceEditorMode.JAVA);
+		// Java keywords from the demo's completion servlet
+		editor1.registerCompletionProvider(new AceRemoteCompletionProvider(
+				new AceHttpCompletionTransport(GWT.getModuleBaseURL() + "completions")), AceEditorMode.JAVA);
 		
 		// build the UI
 		buildUI();
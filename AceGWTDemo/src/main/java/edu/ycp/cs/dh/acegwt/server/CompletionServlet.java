@@ -0,0 +1,58 @@
+package edu.ycp.cs.dh.acegwt.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Completion server of the demo, answering the batches posted by an
+ * AceHttpCompletionTransport: one "mode\tprefix" line per query in,
+ * one JSON array of proposals per query out, proposing Java keywords.
+ */
+public class CompletionServlet extends HttpServlet {
+	private static final long serialVersionUID = 1L;
+
+	private static final String[] KEYWORDS = { "abstract", "boolean", "break", "char", "class",
+			"continue", "double", "extends", "final", "float", "implements", "import", "instanceof",
+			"interface", "private", "protected", "public", "return", "static", "synchronized", "throws" };
+
+	@Override
+	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+		req.setCharacterEncoding("UTF-8");
+		StringBuilder json = new StringBuilder("[");
+		BufferedReader reader = req.getReader();
+		String line;
+		boolean firstQuery = true;
+		while ((line = reader.readLine()) != null) {
+			int tab = line.indexOf('\t');
+			String prefix = tab >= 0 ? line.substring(tab + 1) : line;
+			if (!firstQuery)
+				json.append(',');
+			firstQuery = false;
+			json.append('[');
+			boolean firstProposal = true;
+			for (String keyword : KEYWORDS) {
+				if (!keyword.startsWith(prefix))
+					continue;
+				if (!firstProposal)
+					json.append(',');
+				firstProposal = false;
+				json.append("{\"caption\":\"").append(keyword)
+					.append("\",\"value\":\"").append(keyword)
+					.append("\",\"meta\":\"remote\",\"score\":5}");
+			}
+			json.append(']');
+		}
+		json.append(']');
+
+		resp.setContentType("application/json");
+		resp.setCharacterEncoding("UTF-8");
+		PrintWriter writer = resp.getWriter();
+		writer.write(json.toString());
+		writer.flush();
+	}
+}